@@ -1,5 +1,7 @@
 package com.smartslot.config;
 
+import com.smartslot.service.SlotClaimService;
+import com.smartslot.service.VenueDayOccupancyService;
 import com.smartslot.service.VenueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -11,11 +13,23 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private VenueService venueService;
 
+    @Autowired
+    private SlotClaimService slotClaimService;
+
+    @Autowired
+    private VenueDayOccupancyService venueDayOccupancyService;
+
     @Override
     public void run(String... args) throws Exception {
         // Initialize venues with demo data
         System.out.println("Initializing venue data...");
         venueService.getVenuesWithDemoData();
         System.out.println("Venue data initialization completed!");
+
+        // Claim slots for active bookings created before slot claims existed
+        slotClaimService.backfillFromToday();
+
+        // Bring the occupancy rollup in line with the bookings table
+        venueDayOccupancyService.rebuildFromToday();
     }
 } 
\ No newline at end of file
@@ -1,16 +1,24 @@
 package com.smartslot.controller;
 
-import com.smartslot.model.Booking;
 import com.smartslot.model.User;
+import com.smartslot.service.BookingExportService;
 import com.smartslot.service.BookingService;
+import com.smartslot.service.VenueDayOccupancyService;
+import com.smartslot.service.VenueService;
+import com.smartslot.util.VenueDayLocks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
-import java.util.List;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.Map;
 
 @Controller
@@ -19,6 +27,18 @@ public class AdminController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private VenueDayLocks venueDayLocks;
+
+    @Autowired
+    private VenueDayOccupancyService venueDayOccupancyService;
+
+    @Autowired
+    private VenueService venueService;
+
     @GetMapping("/admin/panel")
     public String adminPanel(HttpSession session) {
         if (!isAdmin(session)) {
@@ -47,12 +67,59 @@ public class AdminController {
 
     @GetMapping("/api/admin/bookings")
     @ResponseBody
-    public ResponseEntity<?> getAllBookings(HttpSession session) {
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) String status,
+                                            @RequestParam(required = false) Long venueId,
+                                            @RequestParam(required = false) String fromDate,
+                                            @RequestParam(required = false) String toDate,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Unauthorized"));
+        }
+        Map<String, Object> result = bookingService.getBookingsPage(status, venueId, fromDate, toDate, cursor, size);
+        if (!(Boolean) result.get("success")) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", result.get("error")));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/api/admin/bookings/counts")
+    @ResponseBody
+    public ResponseEntity<?> getBookingCounts(HttpSession session) {
         if (!isAdmin(session)) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Unauthorized"));
         }
-        List<Booking> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(Map.of("success", true, "bookings", bookings));
+        return ResponseEntity.ok(Map.of("success", true, "counts", bookingService.getBookingCounts()));
+    }
+
+    @GetMapping("/api/admin/bookings/analytics")
+    @ResponseBody
+    public ResponseEntity<?> getBookingAnalytics(HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Unauthorized"));
+        }
+        Map<String, Object> result = new HashMap<>(bookingService.getBookingAnalytics(10));
+        result.put("success", true);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/api/admin/bookings/export")
+    public void exportBookings(@RequestParam(defaultValue = BookingExportService.FORMAT_NDJSON) String format,
+                               HttpSession session, HttpServletResponse response) throws IOException {
+        if (!isAdmin(session)) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Unauthorized");
+            return;
+        }
+        if (!BookingExportService.isSupportedFormat(format)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Format must be ndjson or csv");
+            return;
+        }
+        boolean csv = BookingExportService.FORMAT_CSV.equals(format);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"bookings-" + LocalDate.now() + "." + format + "\"");
+        bookingExportService.export(format, response.getOutputStream());
     }
 
     @PostMapping("/api/admin/bookings/{id}/approve")
@@ -101,6 +168,56 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/api/admin/cache/stats")
+    @ResponseBody
+    public ResponseEntity<?> getCacheStats(HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Unauthorized"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "stats", venueService.getCacheStats()));
+    }
+
+    @GetMapping("/api/admin/booking-locks/stats")
+    @ResponseBody
+    public ResponseEntity<?> getBookingLockStats(HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Unauthorized"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "stats", venueDayLocks.getStats()));
+    }
+
+    @GetMapping("/api/admin/expiry/stats")
+    @ResponseBody
+    public ResponseEntity<?> getExpiryStats(HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Unauthorized"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "stats", bookingService.getExpiryStats()));
+    }
+
+    @PostMapping("/api/admin/occupancy/rebuild")
+    @ResponseBody
+    public ResponseEntity<?> rebuildOccupancy(@RequestParam(required = false) String from,
+                                              @RequestParam(required = false) String to,
+                                              HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Unauthorized"));
+        }
+        try {
+            int rebuilt;
+            if (from == null && to == null) {
+                rebuilt = venueDayOccupancyService.rebuildFromToday();
+            } else {
+                LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+                LocalDate toDate = to != null ? LocalDate.parse(to) : fromDate;
+                rebuilt = venueDayOccupancyService.rebuild(fromDate, toDate);
+            }
+            return ResponseEntity.ok(Map.of("success", true, "venue_days", rebuilt));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid date format"));
+        }
+    }
+
     private boolean isAdmin(HttpSession session) {
         String role = (String) session.getAttribute("role");
         return "ADMIN".equals(role);
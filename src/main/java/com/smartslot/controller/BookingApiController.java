@@ -1,20 +1,34 @@
 package com.smartslot.controller;
 
+import com.smartslot.dto.UserBookingView;
 import com.smartslot.model.Booking;
 import com.smartslot.model.User;
 import com.smartslot.service.AuthService;
+import com.smartslot.service.AvailabilityService;
+import com.smartslot.service.BookingNotificationService;
 import com.smartslot.service.BookingService;
+import com.smartslot.service.NotificationTemplateService;
+import com.smartslot.service.PendingFeedService;
+import com.smartslot.service.SlotEventService;
+import com.smartslot.service.VenueCatalogService;
+import com.smartslot.service.VenueDayVersionService;
 import com.smartslot.service.VenueService;
+import com.smartslot.service.WaitlistService;
 import com.smartslot.util.OtpUtil;
-import com.smartslot.util.EmailUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import javax.servlet.http.HttpSession;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +39,8 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class BookingApiController {
     
+    private static final Logger logger = LoggerFactory.getLogger(BookingApiController.class);
+    
     @Autowired
     private BookingService bookingService;
     
@@ -35,11 +51,32 @@ public class BookingApiController {
     private OtpUtil otpUtil;
     
     @Autowired
-    private EmailUtil emailUtil;
+    private BookingNotificationService bookingNotificationService;
+    
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
     
     @Autowired
     private VenueService venueService;
     
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private WaitlistService waitlistService;
+    
+    @Autowired
+    private VenueDayVersionService venueDayVersionService;
+    
+    @Autowired
+    private VenueCatalogService venueCatalogService;
+    
+    @Autowired
+    private SlotEventService slotEventService;
+    
+    @Autowired
+    private PendingFeedService pendingFeedService;
+    
     /**
      * Create new booking
      * @param booking Booking to create
@@ -79,34 +116,17 @@ public class BookingApiController {
                 String otp = otpUtil.generateOtp();
                 session.setAttribute("bookingOtp", otp);
                 session.setAttribute("bookingId", booking.getId());
+                session.removeAttribute("seriesBookingIds");
                 
                 // Send OTP via email
                 try {
                     User user = (User) userObj;
-                    String subject = "Booking OTP Verification - Smart Slot Booking System";
-                    String body = String.format(
-                        "Hello %s,\n\n" +
-                        "Your booking OTP is: %s\n\n" +
-                        "Please enter this OTP to confirm your booking.\n" +
-                        "This OTP is valid for 10 minutes.\n\n" +
-                        "Booking Details:\n" +
-                        "- Venue: %s\n" +
-                        "- Date: %s\n" +
-                        "- Time: %s - %s\n\n" +
-                        "If you didn't make this booking, please ignore this email.\n\n" +
-                        "Best regards,\nSmart Slot Booking System",
-                        user.getName(),
-                        otp,
-                        booking.getVenue().getName(),
-                        date,
-                        startTime,
-                        endTime
-                    );
-                    
-                    emailUtil.sendEmail(user.getEmail(), subject, body);
-                    System.out.println("OTP sent to: " + user.getEmail() + " - OTP: " + otp);
+                    bookingNotificationService.enqueue(user.getEmail(), notificationTemplateService.render(
+                        NotificationTemplateService.Template.BOOKING_OTP,
+                        user.getName(), otp, booking.getVenue().getName(), date, startTime, endTime));
+                    logger.debug("Booking OTP email queued for booking {}", booking.getId());
                 } catch (Exception e) {
-                    System.err.println("Failed to send OTP email: " + e.getMessage());
+                    logger.warn("Failed to queue booking OTP email: {}", e.getMessage());
                 }
                 
                 response.put("redirectUrl", "/verify-booking");
@@ -131,6 +151,164 @@ public class BookingApiController {
         }
     }
     
+    /**
+     * Create a recurring booking series with one OTP for all occurrences
+     * @param bookingData Booking data with venueId, startDate, startTime, endTime, rule and optional skipConflicts
+     * @param session HttpSession
+     * @return ResponseEntity with created bookings and a per-occurrence conflict report
+     */
+    @PostMapping("/recurring")
+    public ResponseEntity<Map<String, Object>> createRecurringBooking(@RequestBody Map<String, Object> bookingData, HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Object userObj = session.getAttribute("user");
+        if (userObj == null) {
+            response.put("success", false);
+            response.put("error", "Authentication required");
+            return ResponseEntity.status(401).body(response);
+        }
+        
+        try {
+            Long venueId = Long.parseLong(bookingData.get("venueId").toString());
+            String startDate = bookingData.get("startDate").toString();
+            String startTime = bookingData.get("startTime").toString();
+            String endTime = bookingData.get("endTime").toString();
+            String rule = bookingData.get("rule").toString();
+            String title = bookingData.containsKey("title") ? bookingData.get("title").toString() : null;
+            String purpose = bookingData.containsKey("purpose") ? bookingData.get("purpose").toString() : null;
+            boolean skipConflicts = Boolean.parseBoolean(String.valueOf(bookingData.get("skipConflicts")));
+            
+            Map<String, Object> bookingResult = bookingService.createRecurringBooking(
+                userObj, venueId, startDate, startTime, endTime, rule, title, purpose, skipConflicts);
+            
+            if (!(Boolean) bookingResult.get("success")) {
+                response.put("success", false);
+                response.put("error", bookingResult.get("error"));
+                if (bookingResult.containsKey("conflictType")) {
+                    response.put("conflictType", bookingResult.get("conflictType"));
+                }
+                if (bookingResult.containsKey("occurrences")) {
+                    response.put("occurrences", bookingResult.get("occurrences"));
+                }
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            @SuppressWarnings("unchecked")
+            List<Booking> bookings = (List<Booking>) bookingResult.get("bookings");
+            List<Long> bookingIds = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+            
+            // One OTP confirms the whole series
+            String otp = otpUtil.generateOtp();
+            session.setAttribute("bookingOtp", otp);
+            session.setAttribute("bookingId", bookingIds.get(0));
+            session.setAttribute("seriesBookingIds", bookingIds);
+            
+            try {
+                User user = (User) userObj;
+                bookingNotificationService.enqueue(user.getEmail(), notificationTemplateService.render(
+                    NotificationTemplateService.Template.RECURRING_BOOKING_OTP,
+                    user.getName(), otp, bookings.get(0).getVenue().getName(), bookingResult.get("rule"),
+                    startTime, endTime, bookings.size()));
+            } catch (Exception e) {
+                logger.warn("Failed to queue recurring booking OTP email: {}", e.getMessage());
+            }
+            
+            response.put("redirectUrl", "/verify-booking");
+            response.put("success", true);
+            response.put("seriesId", bookingResult.get("seriesId"));
+            response.put("rule", bookingResult.get("rule"));
+            response.put("bookingIds", bookingIds);
+            response.put("created", bookingResult.get("created"));
+            response.put("conflicts", bookingResult.get("conflicts"));
+            response.put("occurrences", bookingResult.get("occurrences"));
+            response.put("message", bookingResult.get("message"));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to create recurring booking: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    /**
+     * Join the waitlist for a taken time slot
+     * @param request Waitlist data with venueId, date, startTime, endTime and optional title and purpose
+     * @param session HttpSession
+     * @return ResponseEntity with the entry and its queue position
+     */
+    @PostMapping("/waitlist")
+    public ResponseEntity<Map<String, Object>> joinWaitlist(@RequestBody Map<String, Object> request, HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Object userObj = session.getAttribute("user");
+        if (userObj == null) {
+            response.put("success", false);
+            response.put("error", "Authentication required");
+            return ResponseEntity.status(401).body(response);
+        }
+        
+        try {
+            Long venueId = Long.parseLong(request.get("venueId").toString());
+            String title = request.containsKey("title") ? request.get("title").toString() : null;
+            String purpose = request.containsKey("purpose") ? request.get("purpose").toString() : null;
+            Map<String, Object> result = waitlistService.join((User) userObj, venueId, request.get("date").toString(),
+                request.get("startTime").toString(), request.get("endTime").toString(), title, purpose);
+            if (!(Boolean) result.get("success")) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to join waitlist: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    /**
+     * Get the current user's waitlist entries
+     * @param session HttpSession
+     * @return ResponseEntity with waitlist entries
+     */
+    @GetMapping("/waitlist")
+    public ResponseEntity<Map<String, Object>> getWaitlist(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Object userObj = session.getAttribute("user");
+        if (userObj == null) {
+            response.put("success", false);
+            response.put("error", "Authentication required");
+            return ResponseEntity.status(401).body(response);
+        }
+        
+        response.put("success", true);
+        response.put("entries", waitlistService.getUserEntries((User) userObj));
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Leave the waitlist
+     * @param id Waitlist entry ID
+     * @param session HttpSession
+     * @return ResponseEntity with result
+     */
+    @DeleteMapping("/waitlist/{id}")
+    public ResponseEntity<Map<String, Object>> leaveWaitlist(@PathVariable Long id, HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Object userObj = session.getAttribute("user");
+        if (userObj == null) {
+            response.put("success", false);
+            response.put("error", "Authentication required");
+            return ResponseEntity.status(401).body(response);
+        }
+        
+        Map<String, Object> result = waitlistService.leave(id, (User) userObj);
+        if (!(Boolean) result.get("success")) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+    
     /**
      * Get current OTP (for development)
      * @param session HttpSession
@@ -185,30 +363,13 @@ public class BookingApiController {
             
             // Send new OTP via email
             try {
-                String subject = "New Booking OTP - Smart Slot Booking System";
-                String body = String.format(
-                    "Hello %s,\n\n" +
-                    "Your new booking OTP is: %s\n\n" +
-                    "Please enter this OTP to confirm your booking.\n" +
-                    "This OTP is valid for 10 minutes.\n\n" +
-                    "Booking Details:\n" +
-                    "- Venue: %s\n" +
-                    "- Date: %s\n" +
-                    "- Time: %s - %s\n\n" +
-                    "If you didn't request this OTP, please ignore this email.\n\n" +
-                    "Best regards,\nSmart Slot Booking System",
-                    booking.getUser().getName(),
-                    newOtp,
-                    booking.getVenue().getName(),
-                    booking.getBookingDate(),
-                    booking.getStartTime(),
-                    booking.getEndTime()
-                );
-                
-                emailUtil.sendEmail(booking.getUser().getEmail(), subject, body);
-                System.out.println("New OTP sent to: " + booking.getUser().getEmail() + " - OTP: " + newOtp);
+                bookingNotificationService.enqueue(booking.getUser().getEmail(), notificationTemplateService.render(
+                    NotificationTemplateService.Template.BOOKING_OTP_RESENT,
+                    booking.getUser().getName(), newOtp, booking.getVenue().getName(),
+                    booking.getBookingDate(), booking.getStartTime(), booking.getEndTime()));
+                logger.debug("New OTP email queued for booking {}", booking.getId());
             } catch (Exception e) {
-                System.err.println("Failed to send new OTP email: " + e.getMessage());
+                logger.warn("Failed to queue new OTP email: {}", e.getMessage());
             }
             
             response.put("success", true);
@@ -239,9 +400,16 @@ public class BookingApiController {
             return ResponseEntity.status(400).body(response);
         }
         if (providedOtp.equals(sessionOtp)) {
-            bookingService.markOtpAsVerified(bookingId);
+            @SuppressWarnings("unchecked")
+            List<Long> seriesBookingIds = (List<Long>) session.getAttribute("seriesBookingIds");
+            if (seriesBookingIds != null) {
+                seriesBookingIds.forEach(bookingService::markOtpAsVerified);
+            } else {
+                bookingService.markOtpAsVerified(bookingId);
+            }
             session.removeAttribute("bookingOtp");
             session.removeAttribute("bookingId");
+            session.removeAttribute("seriesBookingIds");
             response.put("success", true);
             response.put("message", "Successfully submitted your request, wait for admin approval.");
         } else {
@@ -268,40 +436,9 @@ public class BookingApiController {
         }
         
         try {
-            List<Booking> bookings = bookingService.getUserBookings(userObj);
-            
-            // Convert to DTOs to include venue information
-            List<Map<String, Object>> bookingDtos = bookings.stream()
-                .map(booking -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("id", booking.getId());
-                    dto.put("title", booking.getTitle());
-                    dto.put("description", booking.getDescription());
-                    dto.put("purpose", booking.getPurpose());
-                    dto.put("bookingDate", booking.getBookingDate());
-                    dto.put("startTime", booking.getStartTime());
-                    dto.put("endTime", booking.getEndTime());
-                    dto.put("status", booking.getStatus());
-                    dto.put("createdAt", booking.getCreatedAt());
-                    dto.put("confirmedAt", booking.getConfirmedAt());
-                    
-                    // Include venue information
-                    if (booking.getVenue() != null) {
-                        Map<String, Object> venueDto = new HashMap<>();
-                        venueDto.put("id", booking.getVenue().getId());
-                        venueDto.put("name", booking.getVenue().getName());
-                        venueDto.put("location", booking.getVenue().getLocation());
-                        venueDto.put("capacity", booking.getVenue().getCapacity());
-                        venueDto.put("hourlyRate", booking.getVenue().getHourlyRate());
-                        dto.put("venue", venueDto);
-                    }
-                    
-                    return dto;
-                })
-                .collect(Collectors.toList());
-            
+            List<UserBookingView> bookings = bookingService.getUserBookingViews(userObj);
             response.put("success", true);
-            response.put("bookings", bookingDtos);
+            response.put("bookings", bookings);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("success", false);
@@ -339,12 +476,24 @@ public class BookingApiController {
     }
     
     /**
-     * Get all bookings (Admin/Staff only)
+     * Get all bookings, one keyset page at a time (Admin/Staff only)
      * @param token Authorization token
-     * @return ResponseEntity with all bookings
+     * @param status Status filter, optional
+     * @param venueId Venue filter, optional
+     * @param fromDate Earliest booking date (YYYY-MM-DD), optional
+     * @param toDate Latest booking date (YYYY-MM-DD), optional
+     * @param cursor next_cursor of the previous page, optional
+     * @param size Page size, optional and bounded
+     * @return ResponseEntity with the page of bookings and next_cursor
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllBookings(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ResponseEntity<Map<String, Object>> getAllBookings(@RequestHeader(value = "Authorization", required = false) String token,
+                                                              @RequestParam(required = false) String status,
+                                                              @RequestParam(required = false) Long venueId,
+                                                              @RequestParam(required = false) String fromDate,
+                                                              @RequestParam(required = false) String toDate,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
         Map<String, Object> response = new HashMap<>();
         
         User user = authService.validateToken(token);
@@ -355,10 +504,11 @@ public class BookingApiController {
         }
         
         try {
-            List<Booking> bookings = bookingService.getAllBookings();
-            response.put("success", true);
-            response.put("bookings", bookings);
-            return ResponseEntity.ok(response);
+            Map<String, Object> result = bookingService.getBookingsPage(status, venueId, fromDate, toDate, cursor, size);
+            if (!(Boolean) result.get("success")) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", "Failed to get bookings: " + e.getMessage());
@@ -394,6 +544,30 @@ public class BookingApiController {
         }
     }
     
+    /**
+     * Stream changes of the pending-approval queue as Server-Sent Events (STAFF or ADMIN only).
+     * A new stream starts with a "snapshot" event; a reconnect sending Last-Event-ID only
+     * receives the "pending" events it missed while the server still holds them.
+     * @param lastEventId Last event ID received, sent by EventSource on reconnect
+     * @param since Same as lastEventId, for clients that cannot set headers on the first request
+     * @param session HTTP session carrying the role
+     * @return Event stream, 403 without a staff session or 503 when the server is at its stream limit
+     */
+    @GetMapping(value = "/pending/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPendingFeed(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                        @RequestParam(required = false) String since,
+                                                        HttpSession session) {
+        String role = (String) session.getAttribute("role");
+        if (session.getAttribute("user") == null || role == null || !(role.equals("STAFF") || role.equals("ADMIN"))) {
+            return ResponseEntity.status(403).build();
+        }
+        SseEmitter emitter = pendingFeedService.subscribe(lastEventId != null ? lastEventId : since);
+        if (emitter == null) {
+            return ResponseEntity.status(503).build();
+        }
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+    
     /**
      * Approve a booking (STAFF or ADMIN only)
      */
@@ -482,18 +656,28 @@ public class BookingApiController {
     }
     
     /**
-     * Check availability for venue
+     * Check availability for venue. Answers 304 without recomputing while the
+     * venue-day version and the venue catalog are unchanged.
      * @param venueId Venue ID
      * @param date Date to check
+     * @param webRequest Request carrying If-None-Match
      * @return ResponseEntity with availability information
      */
     @GetMapping("/availability")
     public ResponseEntity<Map<String, Object>> checkAvailability(@RequestParam Long venueId,
-                                                                 @RequestParam String date) {
+                                                                 @RequestParam String date,
+                                                                 WebRequest webRequest) {
         try {
             LocalDate localDate = LocalDate.parse(date);
+            // The response embeds the venue, so the tag also follows venue edits
+            String etag = "\"a-" + venueId + "-" + localDate + "-" +
+                venueDayVersionService.getVersion(venueId, localDate) + "-" +
+                venueCatalogService.getSnapshot().getDigest() + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
             Map<String, Object> result = bookingService.checkAvailability(venueId, localDate);
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(result);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -502,54 +686,101 @@ public class BookingApiController {
         }
     }
     
+    /**
+     * Check availability for many venue/date/time tuples in one request
+     * @param request Body with a "checks" list of {venueId, date, startTime, endTime}
+     * @return ResponseEntity with one result per check, in request order
+     */
+    @PostMapping("/availability/batch")
+    public ResponseEntity<Map<String, Object>> checkAvailabilityBatch(@RequestBody Map<String, List<Map<String, Object>>> request) {
+        Map<String, Object> result = availabilityService.checkBatch(request.get("checks"));
+        if (!(Boolean) result.get("success")) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Get the slot occupancy of every active venue over a date range in one response
+     * @param startDate First date (YYYY-MM-DD)
+     * @param endDate Last date (YYYY-MM-DD), defaults to the start date
+     * @param venueIds Venues to include (optional, defaults to all active venues)
+     * @return ResponseEntity with one hex bitmask per venue-day
+     */
+    @GetMapping("/availability-matrix")
+    public ResponseEntity<Map<String, Object>> getAvailabilityMatrix(@RequestParam String startDate,
+                                                                     @RequestParam(required = false) String endDate,
+                                                                     @RequestParam(required = false) List<Long> venueIds) {
+        try {
+            LocalDate start = LocalDate.parse(startDate);
+            LocalDate end = endDate != null ? LocalDate.parse(endDate) : start;
+            Map<String, Object> result = availabilityService.getAvailabilityMatrix(start, end, venueIds);
+            if (!(Boolean) result.get("success")) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (DateTimeParseException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "Invalid date format. Use YYYY-MM-DD");
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
     /**
      * Get calendar availability for a venue in a given month
      * @param venueId Venue ID
      * @param month Month (1-12)
      * @param year Year (e.g. 2025)
-     * @return JSON list of days with availability
+     * @param webRequest Request carrying If-None-Match
+     * @return JSON list of days with availability, or 304 while no day of the month changed
      */
     @GetMapping("/calendar")
     public ResponseEntity<List<Map<String, Object>>> getVenueCalendar(@RequestParam Long venueId,
                                                                      @RequestParam int month,
-                                                                     @RequestParam int year) {
-        List<Map<String, Object>> calendar = new ArrayList<>();
+                                                                     @RequestParam int year,
+                                                                     WebRequest webRequest) {
         YearMonth yearMonth = YearMonth.of(year, month);
         LocalDate start = yearMonth.atDay(1);
         LocalDate end = yearMonth.atEndOfMonth();
-        // Fetch all bookings for the venue in the month
-        List<Booking> bookings = bookingService.getBookingsForVenueAndDateRange(venueId, start, end);
-        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
-            boolean available = bookingService.isDayAvailable(venueId, date, bookings);
-            Map<String, Object> day = new HashMap<>();
-            day.put("date", date.toString());
-            day.put("available", available);
-            calendar.add(day);
-        }
-        return ResponseEntity.ok(calendar);
+        String etag = "\"c-" + venueId + "-" + yearMonth + "-" +
+            venueDayVersionService.getRangeVersion(venueId, start, end) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        // Read one occupancy bitmap per day of the month
+        List<Map<String, Object>> calendar = bookingService.getDayAvailability(venueId, start, end);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(calendar);
     }
     
     /**
      * Get available time slots for a venue on a specific date
      * @param venueId Venue ID
      * @param date Date string (YYYY-MM-DD)
-     * @return ResponseEntity with available time slots
+     * @param webRequest Request carrying If-None-Match
+     * @return ResponseEntity with available time slots, or 304 while the venue-day is unchanged
      */
     @GetMapping("/available-slots")
     public ResponseEntity<Map<String, Object>> getAvailableTimeSlots(
             @RequestParam Long venueId, 
-            @RequestParam String date) {
+            @RequestParam String date,
+            WebRequest webRequest) {
         Map<String, Object> response = new HashMap<>();
         
         try {
             LocalDate bookingDate = LocalDate.parse(date);
+            String etag = "\"s-" + venueId + "-" + date + "-" +
+                venueDayVersionService.getVersion(venueId, bookingDate) + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
             List<Map<String, Object>> availableSlots = bookingService.getAvailableTimeSlots(venueId, bookingDate);
             
             response.put("success", true);
             response.put("venueId", venueId);
             response.put("date", date);
             response.put("availableSlots", availableSlots);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", "Failed to get available slots: " + e.getMessage());
@@ -557,6 +788,37 @@ public class BookingApiController {
         }
     }
     
+    /**
+     * Stream slot changes of a venue over a date range as Server-Sent Events.
+     * Each "slots" event carries the coalesced occupied/freed changes since the last one.
+     * @param venueId Venue ID
+     * @param from First date (YYYY-MM-DD)
+     * @param to Last date (YYYY-MM-DD), defaults to the first date
+     * @return Event stream, 400 for an invalid range or 503 when the server is at its stream limit
+     */
+    @GetMapping(value = "/slot-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSlotEvents(@RequestParam Long venueId,
+                                                       @RequestParam String from,
+                                                       @RequestParam(required = false) String to) {
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(from);
+            endDate = to != null ? LocalDate.parse(to) : startDate;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (endDate.isBefore(startDate) || startDate.plusDays(slotEventService.getMaxRangeDays()).isBefore(endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        SseEmitter emitter = slotEventService.subscribe(venueId, startDate, endDate);
+        if (emitter == null) {
+            return ResponseEntity.status(503).build();
+        }
+        // Keep reverse proxies from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+    
     /**
      * Get today's bookings
      * @param token Authorization token
@@ -591,14 +853,21 @@ public class BookingApiController {
      * @param date Date (YYYY-MM-DD)
      * @param startTime Start time (HH:mm)
      * @param endTime End time (HH:mm)
-     * @return JSON with original request and suggestions
+     * @param horizonDays Days ahead to search (optional)
+     * @param limit Maximum number of suggestions (optional)
+     * @param attendees Expected attendees for other-venue suggestions (optional)
+     * @return JSON with original request and ranked suggestions
      */
     @GetMapping("/suggest-alternates")
     public ResponseEntity<Map<String, Object>> suggestAlternates(@RequestParam Long venueId,
                                                                 @RequestParam String date,
                                                                 @RequestParam String startTime,
-                                                                @RequestParam String endTime) {
-        Map<String, Object> result = bookingService.suggestAlternateSlots(venueId, date, startTime, endTime);
+                                                                @RequestParam String endTime,
+                                                                @RequestParam(required = false) Integer horizonDays,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                @RequestParam(required = false) Integer attendees) {
+        Map<String, Object> result = bookingService.suggestAlternateSlots(venueId, date, startTime, endTime,
+            horizonDays, limit, attendees);
         return ResponseEntity.ok(result);
     }
 } 
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.smartslot.model.Booking;
 import com.smartslot.model.User;
 import com.smartslot.service.BookingService;
 import com.smartslot.service.VenueService;
+import com.smartslot.util.SlotGrid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -19,6 +20,9 @@ public class BookingController {
     
     @Autowired
     private BookingService bookingService;
+    
+    @Autowired
+    private SlotGrid slotGrid;
 
     @GetMapping("/book")
     public String showBookingPage(HttpSession session, Model model) {
@@ -27,6 +31,7 @@ public class BookingController {
             return "redirect:/login";
         }
         model.addAttribute("venues", venueService.getVenuesWithDemoData());
+        model.addAttribute("slotStepSeconds", slotGrid.getGranularityMinutes() * 60);
         return "booking";
     }
 
@@ -39,6 +44,7 @@ public class BookingController {
             return "redirect:/login";
         }
         model.addAttribute("venues", venueService.getVenuesWithDemoData());
+        model.addAttribute("slotStepSeconds", slotGrid.getGranularityMinutes() * 60);
         
         // Add venue parameters to model if provided
         if (venueId != null) {
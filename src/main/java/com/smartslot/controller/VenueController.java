@@ -2,9 +2,12 @@ package com.smartslot.controller;
 
 import com.smartslot.model.User;
 import com.smartslot.model.Venue;
+import com.smartslot.service.VenueCatalogService;
 import com.smartslot.service.VenueService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +25,9 @@ public class VenueController {
     @Autowired
     private VenueService venueService;
     
+    @Autowired
+    private VenueCatalogService venueCatalogService;
+    
     // Admin venue management page
     @GetMapping("/admin/venues")
     public String adminVenues(HttpSession session) {
@@ -42,12 +48,17 @@ public class VenueController {
         return ResponseEntity.ok(Map.of("success", true, "venues", venues));
     }
 
-    // Get all active venues for public users (dashboard)
+    // Get all active venues for public users (dashboard), served from the pre-serialized catalog.
+    // A matching If-None-Match is answered with 304 by Spring from the ETag set here.
     @GetMapping("/api/venues")
     @ResponseBody
-    public ResponseEntity<?> getPublicVenues() {
-        List<Venue> venues = venueService.getActiveVenues();
-        return ResponseEntity.ok(Map.of("success", true, "venues", venues));
+    public ResponseEntity<byte[]> getPublicVenues() {
+        VenueCatalogService.Snapshot catalog = venueCatalogService.getSnapshot();
+        return ResponseEntity.ok()
+            .eTag(catalog.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(catalog.getBody());
     }
 
     // Get venue by ID
@@ -0,0 +1,122 @@
+package com.smartslot.dto;
+
+import com.smartslot.model.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Read model for a user's booking list.
+ *
+ * Built directly by a JPQL constructor expression, so only the listed columns
+ * are selected and the TEXT columns of the booking are never read.
+ */
+public class UserBookingView {
+
+    private final Long id;
+    private final String title;
+    private final String purpose;
+    private final LocalDate bookingDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Booking.BookingStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime confirmedAt;
+    private final VenueSummary venue;
+
+    public UserBookingView(Long id, String title, String purpose, LocalDate bookingDate,
+                           LocalTime startTime, LocalTime endTime, Booking.BookingStatus status,
+                           LocalDateTime createdAt, LocalDateTime confirmedAt,
+                           Long venueId, String venueName, String venueLocation,
+                           Integer venueCapacity, BigDecimal venueHourlyRate) {
+        this.id = id;
+        this.title = title;
+        this.purpose = purpose;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.confirmedAt = confirmedAt;
+        this.venue = new VenueSummary(venueId, venueName, venueLocation, venueCapacity, venueHourlyRate);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getConfirmedAt() {
+        return confirmedAt;
+    }
+
+    public VenueSummary getVenue() {
+        return venue;
+    }
+
+    public static class VenueSummary {
+
+        private final Long id;
+        private final String name;
+        private final String location;
+        private final Integer capacity;
+        private final BigDecimal hourlyRate;
+
+        public VenueSummary(Long id, String name, String location, Integer capacity, BigDecimal hourlyRate) {
+            this.id = id;
+            this.name = name;
+            this.location = location;
+            this.capacity = capacity;
+            this.hourlyRate = hourlyRate;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public Integer getCapacity() {
+            return capacity;
+        }
+
+        public BigDecimal getHourlyRate() {
+            return hourlyRate;
+        }
+    }
+}
@@ -7,9 +7,24 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings",
+       indexes = {
+           @Index(name = "idx_bookings_venue_date", columnList = "venue_id, booking_date"),
+           @Index(name = "idx_bookings_status_created", columnList = "status, created_at, id"),
+           @Index(name = "idx_bookings_venue_created", columnList = "venue_id, created_at, id"),
+           @Index(name = "idx_bookings_created", columnList = "created_at, id"),
+           @Index(name = "idx_bookings_user_created", columnList = "user_id, created_at"),
+           @Index(name = "idx_bookings_updated", columnList = "updated_at")
+       })
+// Read paths that serialize or email bookings touch both associations
+@NamedEntityGraph(name = Booking.WITH_USER_AND_VENUE, attributeNodes = {
+    @NamedAttributeNode("user"),
+    @NamedAttributeNode("venue")
+})
 public class Booking {
     
+    public static final String WITH_USER_AND_VENUE = "Booking.withUserAndVenue";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
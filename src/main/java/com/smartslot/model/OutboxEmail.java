@@ -0,0 +1,183 @@
+package com.smartslot.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting in the outbox.
+ *
+ * Rows are written in the same transaction as the booking change they
+ * announce, so an email exists exactly when its change was committed. The
+ * outbox dispatcher claims due PENDING rows through the (status,
+ * next_attempt_at) index by stamping them with a claim token and a lease,
+ * sends them, and marks them SENT, schedules a retry, or moves them to DEAD
+ * once the attempts are exhausted.
+ */
+@Entity
+@Table(name = "email_outbox",
+       indexes = {
+           @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+           @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token")
+       })
+public class OutboxEmail {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    @Column(nullable = false)
+    private String subject;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+    
+    // Sent as the alternative part next to the plain text body when present
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+    
+    // Incremented when the row is claimed, so an attempt cut short by a crash still counts
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    // Due time while PENDING; while claimed, the end of the lease
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    // Constructors
+    public OutboxEmail() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+    
+    public OutboxEmail(String recipient, String subject, String body) {
+        this(recipient, subject, body, null);
+    }
+    
+    public OutboxEmail(String recipient, String subject, String body, String htmlBody) {
+        this();
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.htmlBody = htmlBody;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+    }
+    
+    public String getHtmlBody() {
+        return htmlBody;
+    }
+    
+    public void setHtmlBody(String htmlBody) {
+        this.htmlBody = htmlBody;
+    }
+    
+    public OutboxStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+    
+    public Integer getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public String getClaimToken() {
+        return claimToken;
+    }
+    
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+    
+    public enum OutboxStatus {
+        PENDING, SENT, DEAD
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartslot.model;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * One grid slot of a venue-day held by an active booking.
+ *
+ * The unique key on (venue_id, booking_date, slot_index) makes the database
+ * the arbiter of double-booking: claims are inserted in the same transaction
+ * as their booking, so two nodes racing for a slot end in one constraint
+ * violation instead of two overlapping rows.
+ */
+@Entity
+@Table(name = "slot_claims",
+       uniqueConstraints = @UniqueConstraint(name = "uk_slot_claims_venue_day_slot",
+                                             columnNames = {"venue_id", "booking_date", "slot_index"}),
+       indexes = @Index(name = "idx_slot_claims_booking", columnList = "booking_id"))
+public class SlotClaim {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "venue_id", nullable = false)
+    private Long venueId;
+    
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+    
+    @Column(name = "slot_index", nullable = false)
+    private Integer slotIndex;
+    
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+    
+    // Constructors
+    public SlotClaim() {
+    }
+    
+    public SlotClaim(Long venueId, LocalDate bookingDate, Integer slotIndex, Long bookingId) {
+        this.venueId = venueId;
+        this.bookingDate = bookingDate;
+        this.slotIndex = slotIndex;
+        this.bookingId = bookingId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getVenueId() {
+        return venueId;
+    }
+    
+    public void setVenueId(Long venueId) {
+        this.venueId = venueId;
+    }
+    
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+    
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+    
+    public Integer getSlotIndex() {
+        return slotIndex;
+    }
+    
+    public void setSlotIndex(Integer slotIndex) {
+        this.slotIndex = slotIndex;
+    }
+    
+    public Long getBookingId() {
+        return bookingId;
+    }
+    
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+}
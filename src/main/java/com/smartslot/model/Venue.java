@@ -2,6 +2,9 @@ package com.smartslot.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -9,6 +12,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "venues")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Venue {
     
     @Id
@@ -33,6 +38,8 @@ public class Venue {
     
     @JsonIgnore
     @ElementCollection
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "venue_amenities", joinColumns = @JoinColumn(name = "venue_id"))
     @Column(name = "amenity")
     private List<String> amenities;
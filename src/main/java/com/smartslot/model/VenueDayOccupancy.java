@@ -0,0 +1,127 @@
+package com.smartslot.model;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized occupancy rollup of one venue-day.
+ *
+ * Maintained in the same transaction as every booking status change and
+ * rebuilt from the bookings table by VenueDayOccupancyService for recovery,
+ * so month calendars only need a range scan of at most 31 of these rows.
+ */
+@Entity
+@Table(name = "venue_day_occupancy",
+       uniqueConstraints = @UniqueConstraint(name = "uk_venue_day_occupancy_venue_date",
+                                             columnNames = {"venue_id", "booking_date"}))
+public class VenueDayOccupancy {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "venue_id", nullable = false)
+    private Long venueId;
+    
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+    
+    @Column(name = "booked_minutes", nullable = false)
+    private Integer bookedMinutes = 0;
+    
+    @Column(name = "active_bookings", nullable = false)
+    private Integer activeBookings = 0;
+    
+    // Slot index on the SlotGrid, null when business hours are fully booked
+    @Column(name = "first_free_slot")
+    private Integer firstFreeSlot;
+    
+    // Bumped on every booking write to the day; availability ETags are derived from it
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public VenueDayOccupancy() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public VenueDayOccupancy(Long venueId, LocalDate bookingDate) {
+        this();
+        this.venueId = venueId;
+        this.bookingDate = bookingDate;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getVenueId() {
+        return venueId;
+    }
+    
+    public void setVenueId(Long venueId) {
+        this.venueId = venueId;
+    }
+    
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+    
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+    
+    public Integer getBookedMinutes() {
+        return bookedMinutes;
+    }
+    
+    public void setBookedMinutes(Integer bookedMinutes) {
+        this.bookedMinutes = bookedMinutes;
+    }
+    
+    public Integer getActiveBookings() {
+        return activeBookings;
+    }
+    
+    public void setActiveBookings(Integer activeBookings) {
+        this.activeBookings = activeBookings;
+    }
+    
+    public Integer getFirstFreeSlot() {
+        return firstFreeSlot;
+    }
+    
+    public void setFirstFreeSlot(Integer firstFreeSlot) {
+        this.firstFreeSlot = firstFreeSlot;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
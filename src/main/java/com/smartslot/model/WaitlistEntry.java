@@ -0,0 +1,179 @@
+package com.smartslot.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A request waiting for a taken time range of a venue-day.
+ *
+ * Waiting entries are looked up through the (venue_id, booking_date, status,
+ * created_at) index whenever a booking of their venue-day frees its slot, and
+ * the oldest entry whose range is free again is promoted to a PENDING booking.
+ */
+@Entity
+@Table(name = "waitlist_entries",
+       indexes = {
+           @Index(name = "idx_waitlist_venue_day_status", columnList = "venue_id, booking_date, status, created_at"),
+           @Index(name = "idx_waitlist_user", columnList = "user_id")
+       })
+public class WaitlistEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "venue_id", nullable = false)
+    private Venue venue;
+    
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+    
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+    
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(name = "purpose")
+    private String purpose;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+    
+    @Column(name = "promoted_booking_id")
+    private Long promotedBookingId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "promoted_at")
+    private LocalDateTime promotedAt;
+    
+    // Constructors
+    public WaitlistEntry() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public WaitlistEntry(Venue venue, User user, LocalDate bookingDate, LocalTime startTime, LocalTime endTime) {
+        this();
+        this.venue = venue;
+        this.user = user;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Venue getVenue() {
+        return venue;
+    }
+    
+    public void setVenue(Venue venue) {
+        this.venue = venue;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+    
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getPurpose() {
+        return purpose;
+    }
+    
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+    
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+    
+    public Long getPromotedBookingId() {
+        return promotedBookingId;
+    }
+    
+    public void setPromotedBookingId(Long promotedBookingId) {
+        this.promotedBookingId = promotedBookingId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getPromotedAt() {
+        return promotedAt;
+    }
+    
+    public void setPromotedAt(LocalDateTime promotedAt) {
+        this.promotedAt = promotedAt;
+    }
+    
+    public enum WaitlistStatus {
+        WAITING, PROMOTED, CANCELLED, EXPIRED
+    }
+}
@@ -1,57 +1,119 @@
 package com.smartslot.repository;
 
+import com.smartslot.dto.UserBookingView;
 import com.smartslot.model.Booking;
 import com.smartslot.model.User;
 import com.smartslot.model.Venue;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByUserOrderByCreatedAtDesc(User user);
     
+    @Query("SELECT new com.smartslot.dto.UserBookingView(b.id, b.title, b.purpose, b.bookingDate, b.startTime, " +
+           "b.endTime, b.status, b.createdAt, b.confirmedAt, v.id, v.name, v.location, v.capacity, v.hourlyRate) " +
+           "FROM Booking b JOIN b.venue v WHERE b.user.id = :userId ORDER BY b.createdAt DESC")
+    List<UserBookingView> findUserBookingViews(@Param("userId") Long userId);
+    
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByVenueAndBookingDate(Venue venue, LocalDate date);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByVenueAndBookingDateBetween(Venue venue, LocalDate start, LocalDate end);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     @Query("SELECT b FROM Booking b WHERE b.status = 'PENDING' ORDER BY b.createdAt DESC")
     List<Booking> findPendingBookingsOrderByCreatedAt();
     
     @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.createdAt < :createdAt")
     List<Booking> findByStatusAndCreatedAtBefore(@Param("status") Booking.BookingStatus status, @Param("createdAt") LocalDateTime createdAt);
     
+    @Query("SELECT b.id, b.createdAt FROM Booking b WHERE b.status = 'PENDING'")
+    List<Object[]> findPendingCreatedAt();
+    
+    @Query("SELECT b.id, b.createdAt FROM Booking b WHERE b.status = 'PENDING' AND b.createdAt < :createdBefore AND " +
+           "(b.createdAt > :afterCreatedAt OR (b.createdAt = :afterCreatedAt AND b.id > :afterId)) " +
+           "ORDER BY b.createdAt, b.id")
+    List<Object[]> findStalePendingChunk(@Param("createdBefore") LocalDateTime createdBefore,
+                                         @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+    
+    @Query("SELECT b.id, v.id, b.bookingDate, b.startTime, b.endTime, u.email, v.name FROM Booking b " +
+           "JOIN b.user u JOIN b.venue v " +
+           "WHERE b.id IN :ids AND b.status = 'PENDING' AND b.createdAt <= :createdBefore")
+    List<Object[]> findPendingExpiryRows(@Param("ids") Collection<Long> ids,
+                                         @Param("createdBefore") LocalDateTime createdBefore);
+    
+    @Query(value = "SELECT id FROM bookings WHERE id IN (:ids) AND status = 'PENDING' FOR UPDATE", nativeQuery = true)
+    List<Number> lockPendingIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.updatedAt = :updatedAt " +
+           "WHERE b.id IN :ids AND b.status = 'PENDING'")
+    int updatePendingStatus(@Param("ids") Collection<Long> ids,
+                            @Param("status") Booking.BookingStatus status,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByUserEmail(String email);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
+    List<Booking> findByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT b.id, b.updatedAt FROM Booking b WHERE b.updatedAt >= :since")
+    List<Object[]> findUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     @Query("SELECT b FROM Booking b WHERE b.bookingDate = CURRENT_DATE")
     List<Booking> findTodaysBookings();
     
     // Additional methods needed by services
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByUser(User user);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByVenue(Venue venue);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByStatus(Booking.BookingStatus status);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByBookingDate(LocalDate bookingDate);
     
     // New methods for user bookings with status filtering
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     List<Booking> findByUserAndStatusOrderByCreatedAtDesc(User user, Booking.BookingStatus status);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     @Query("SELECT b FROM Booking b WHERE b.user = :user AND b.status = :status ORDER BY b.createdAt DESC")
     List<Booking> findUserBookingsByStatus(@Param("user") User user, @Param("status") Booking.BookingStatus status);
     
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.user = :user AND b.status = :status")
     Long countUserBookingsByStatus(@Param("user") User user, @Param("status") Booking.BookingStatus status);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     @Query("SELECT b FROM Booking b WHERE b.venue = :venue AND b.bookingDate = :date AND " +
            "((b.startTime <= :startTime AND b.endTime > :startTime) OR " +
            "(b.startTime < :endTime AND b.endTime >= :endTime) OR " +
@@ -62,6 +124,33 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                          @Param("startTime") LocalTime startTime, 
                                          @Param("endTime") LocalTime endTime);
     
+    @Query("SELECT b.status FROM Booking b WHERE b.id = :id")
+    Optional<Booking.BookingStatus> findStatusById(@Param("id") Long id);
+    
+    @Query("SELECT b.id, b.venue.id, b.bookingDate, b.startTime, b.endTime, b.status FROM Booking b " +
+           "WHERE b.venue.id = :venueId AND b.bookingDate BETWEEN :startDate AND :endDate AND " +
+           "b.status NOT IN ('CANCELLED', 'REJECTED')")
+    List<Object[]> findActiveSlotRows(@Param("venueId") Long venueId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT b.id, b.venue.id, b.bookingDate, b.startTime, b.endTime, b.status FROM Booking b " +
+           "WHERE b.venue.id IN :venueIds AND b.bookingDate BETWEEN :startDate AND :endDate AND " +
+           "b.status NOT IN ('CANCELLED', 'REJECTED')")
+    List<Object[]> findActiveSlotRowsForVenues(@Param("venueIds") Collection<Long> venueIds,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT b.id, b.venue.id, b.bookingDate, b.startTime, b.endTime FROM Booking b " +
+           "WHERE b.bookingDate >= :fromDate AND b.status NOT IN ('CANCELLED', 'REJECTED') AND " +
+           "NOT EXISTS (SELECT c.id FROM SlotClaim c WHERE c.bookingId = b.id)")
+    List<Object[]> findUnclaimedActiveSlotRows(@Param("fromDate") LocalDate fromDate);
+    
+    @Query("SELECT DISTINCT b.venue.id, b.bookingDate FROM Booking b " +
+           "WHERE b.bookingDate BETWEEN :startDate AND :endDate AND b.status NOT IN ('CANCELLED', 'REJECTED')")
+    List<Object[]> findActiveVenueDaysBetween(@Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+    
     @Query("SELECT b FROM Booking b WHERE b.bookingDate BETWEEN :startDate AND :endDate")
     List<Booking> findByBookingDateBetween(@Param("startDate") LocalDate startDate, 
                                           @Param("endDate") LocalDate endDate);
@@ -69,13 +158,24 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status")
     Long countByStatus(@Param("status") Booking.BookingStatus status);
     
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countGroupedByStatus();
+    
+    @Query("SELECT u.email, COUNT(b) FROM Booking b JOIN b.user u GROUP BY u.id, u.email ORDER BY COUNT(b) DESC, u.email")
+    List<Object[]> countGroupedByUser(Pageable pageable);
+    
+    @Query("SELECT COUNT(DISTINCT b.user.id) FROM Booking b")
+    long countDistinctUsers();
+    
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.venue = :venue AND b.status IN ('CONFIRMED', 'PENDING')")
     Long countActiveBookingsByVenue(@Param("venue") Venue venue);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     @Query("SELECT b FROM Booking b WHERE b.otpCode = :otpCode AND b.otpExpiresAt > :currentTime")
     Optional<Booking> findByOtpCodeAndOtpExpiresAtAfter(@Param("otpCode") String otpCode, 
                                                         @Param("currentTime") LocalDateTime currentTime);
     
+    @EntityGraph(Booking.WITH_USER_AND_VENUE)
     @Query("SELECT b FROM Booking b WHERE b.bookingDate = :date AND b.status IN ('CONFIRMED', 'PENDING') ORDER BY b.startTime")
     List<Booking> findTodaysBookings(@Param("date") LocalDate date);
     
@@ -89,7 +189,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "GROUP BY EXTRACT(HOUR FROM b.startTime) ORDER BY bookingCount DESC")
     List<Object[]> findPeakHours();
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.venue")
-    List<Booking> findAllWithUserAndVenue();
+    // Rows are pulled from the driver fetch-size at a time; the caller must consume
+    // the stream inside a transaction and close it
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.venue ORDER BY b.id")
+    Stream<Booking> streamAllWithUserAndVenue();
 }
-
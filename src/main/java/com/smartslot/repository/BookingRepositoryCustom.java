@@ -0,0 +1,29 @@
+package com.smartslot.repository;
+
+import com.smartslot.model.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking queries whose WHERE clause depends on which filters are present.
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Keyset page of bookings, newest first by (createdAt, id), with user and venue fetched.
+     * Only the filters that are non-null end up in the query so each variant can use
+     * its own index instead of an "IS NULL OR" predicate the optimizer cannot.
+     * @param status Status filter or null
+     * @param venueId Venue filter or null
+     * @param fromDate Earliest booking date or null
+     * @param toDate Latest booking date or null
+     * @param beforeCreatedAt createdAt of the last row of the previous page, null for the first page
+     * @param beforeId ID of the last row of the previous page
+     * @param limit Maximum number of rows
+     * @return Bookings ordered by createdAt DESC, id DESC
+     */
+    List<Booking> findPage(Booking.BookingStatus status, Long venueId, LocalDate fromDate, LocalDate toDate,
+                           LocalDateTime beforeCreatedAt, Long beforeId, int limit);
+}
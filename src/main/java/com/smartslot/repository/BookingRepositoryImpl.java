@@ -0,0 +1,58 @@
+package com.smartslot.repository;
+
+import com.smartslot.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(Booking.BookingStatus status, Long venueId, LocalDate fromDate, LocalDate toDate,
+                                  LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        // Both associations are to-one, so fetching them keeps the row count and setMaxResults exact
+        booking.fetch("user");
+        booking.fetch("venue");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(booking.get("status"), status));
+        }
+        if (venueId != null) {
+            predicates.add(cb.equal(booking.get("venue").get("id"), venueId));
+        }
+        if (fromDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(booking.get("bookingDate"), fromDate));
+        }
+        if (toDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(booking.get("bookingDate"), toDate));
+        }
+        if (beforeCreatedAt != null) {
+            predicates.add(cb.or(
+                cb.lessThan(booking.get("createdAt"), beforeCreatedAt),
+                cb.and(cb.equal(booking.get("createdAt"), beforeCreatedAt),
+                       cb.lessThan(booking.get("id"), beforeId))));
+        }
+
+        query.select(booking)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.desc(booking.get("createdAt")), cb.desc(booking.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.smartslot.repository;
+
+import com.smartslot.model.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+    
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.nextAttemptAt, e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Rows claimed by another node since they were read are left alone
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.claimToken = :token, e.nextAttemptAt = :leaseUntil, " +
+           "e.attempts = e.attempts + 1 " +
+           "WHERE e.id IN :ids AND e.status = 'PENDING' AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    List<OutboxEmail> findByClaimToken(String claimToken);
+    
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'SENT', e.sentAt = :sentAt, e.claimToken = NULL, " +
+           "e.lastError = NULL WHERE e.id IN :ids AND e.claimToken = :token")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") String token,
+                 @Param("sentAt") LocalDateTime sentAt);
+    
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.nextAttemptAt = :nextAttemptAt, e.lastError = :error, " +
+           "e.claimToken = NULL WHERE e.id = :id AND e.claimToken = :token")
+    int markRetry(@Param("id") Long id, @Param("token") String token,
+                  @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+    
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'DEAD', e.lastError = :error, e.claimToken = NULL " +
+           "WHERE e.id = :id AND e.claimToken = :token")
+    int markDead(@Param("id") Long id, @Param("token") String token, @Param("error") String error);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.status = 'SENT' AND e.sentAt < :sentBefore")
+    int deleteSentBefore(@Param("sentBefore") LocalDateTime sentBefore);
+}
@@ -0,0 +1,39 @@
+package com.smartslot.repository;
+
+import com.smartslot.model.VenueDayOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VenueDayOccupancyRepository extends JpaRepository<VenueDayOccupancy, Long> {
+    
+    boolean existsByVenueIdAndBookingDate(Long venueId, LocalDate bookingDate);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM VenueDayOccupancy o WHERE o.venueId = :venueId AND o.bookingDate = :date")
+    Optional<VenueDayOccupancy> findForUpdate(@Param("venueId") Long venueId, @Param("date") LocalDate date);
+    
+    @Query("SELECT o FROM VenueDayOccupancy o WHERE o.venueId = :venueId AND " +
+           "o.bookingDate BETWEEN :startDate AND :endDate ORDER BY o.bookingDate")
+    List<VenueDayOccupancy> findByVenueIdAndDateRange(@Param("venueId") Long venueId,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT o.bookingDate, o.version FROM VenueDayOccupancy o WHERE o.venueId = :venueId AND " +
+           "o.bookingDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findVersions(@Param("venueId") Long venueId,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT o.venueId, o.bookingDate FROM VenueDayOccupancy o WHERE o.bookingDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findVenueDaysBetween(@Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+}
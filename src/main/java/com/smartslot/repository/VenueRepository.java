@@ -3,15 +3,21 @@ package com.smartslot.repository;
 import com.smartslot.model.Venue;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface VenueRepository extends JpaRepository<Venue, Long> {
     
+    // Cached until any venue row changes; the entities themselves come from the second-level cache
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Venue> findByIsActiveTrue();
     
     List<Venue> findByCapacityGreaterThanEqualAndIsActiveTrue(Integer capacity);
@@ -0,0 +1,47 @@
+package com.smartslot.repository;
+
+import com.smartslot.model.User;
+import com.smartslot.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.user JOIN FETCH w.venue " +
+           "WHERE w.venue.id = :venueId AND w.bookingDate = :date AND w.status = 'WAITING' " +
+           "ORDER BY w.createdAt, w.id")
+    List<WaitlistEntry> findWaiting(@Param("venueId") Long venueId, @Param("date") LocalDate date);
+    
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.venue.id = :venueId AND w.bookingDate = :date AND " +
+           "w.status = 'WAITING' AND w.startTime < :endTime AND w.endTime > :startTime AND w.createdAt <= :createdAt")
+    long countWaitingAhead(@Param("venueId") Long venueId, @Param("date") LocalDate date,
+                           @Param("startTime") LocalTime startTime, @Param("endTime") LocalTime endTime,
+                           @Param("createdAt") LocalDateTime createdAt);
+    
+    @Query("SELECT COUNT(w) > 0 FROM WaitlistEntry w WHERE w.user = :user AND w.venue.id = :venueId AND " +
+           "w.bookingDate = :date AND w.startTime = :startTime AND w.endTime = :endTime AND w.status = 'WAITING'")
+    boolean existsWaiting(@Param("user") User user, @Param("venueId") Long venueId, @Param("date") LocalDate date,
+                          @Param("startTime") LocalTime startTime, @Param("endTime") LocalTime endTime);
+    
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.venue WHERE w.user = :user ORDER BY w.createdAt DESC")
+    List<WaitlistEntry> findByUserWithVenue(@Param("user") User user);
+    
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'PROMOTED', w.promotedBookingId = :bookingId, " +
+           "w.promotedAt = :promotedAt WHERE w.id = :id AND w.status = 'WAITING'")
+    int markPromoted(@Param("id") Long id, @Param("bookingId") Long bookingId,
+                     @Param("promotedAt") LocalDateTime promotedAt);
+    
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED' WHERE w.status = 'WAITING' AND w.bookingDate < :date")
+    int expireBefore(@Param("date") LocalDate date);
+}
@@ -0,0 +1,238 @@
+package com.smartslot.service;
+
+import com.smartslot.model.Venue;
+import com.smartslot.repository.VenueRepository;
+import com.smartslot.util.SlotGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk availability reads for dashboards and clients that would otherwise
+ * ask one venue-date at a time. The venue-days involved are loaded into the
+ * slot index with range queries, one for a matrix and one per venue date-range
+ * group for a batch, then answered from memory.
+ */
+@Service
+public class AvailabilityService {
+
+    @Autowired
+    private SlotIndexService slotIndexService;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private SlotGrid slotGrid;
+
+    @Value("${booking.matrix.max-days:31}")
+    private int maxMatrixDays;
+
+    @Value("${booking.batch.max-checks:500}")
+    private int maxBatchChecks;
+
+    @Value("${booking.batch.horizon-days:365}")
+    private int batchHorizonDays;
+
+    /**
+     * Build the venue x day x slot occupancy matrix of the active venues over
+     * business hours. Each venue-day is serialized as a hex bitmask, see
+     * SlotGrid.toHex, so a month for every venue fits in a few kilobytes.
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @param venueIds Venues to include, null or empty for every active venue
+     * @return Map containing the matrix or an error
+     */
+    public Map<String, Object> getAvailabilityMatrix(LocalDate startDate, LocalDate endDate, List<Long> venueIds) {
+        Map<String, Object> result = new HashMap<>();
+        if (endDate.isBefore(startDate)) {
+            result.put("success", false);
+            result.put("error", "End date must not be before start date");
+            return result;
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxMatrixDays) {
+            result.put("success", false);
+            result.put("error", "Date range cannot exceed " + maxMatrixDays + " days");
+            return result;
+        }
+
+        List<Venue> venues = venueRepository.findByIsActiveTrue();
+        if (venueIds != null && !venueIds.isEmpty()) {
+            venues = venues.stream()
+                .filter(venue -> venueIds.contains(venue.getId()))
+                .collect(Collectors.toList());
+        }
+        slotIndexService.preload(venues.stream().map(Venue::getId).collect(Collectors.toList()), startDate, endDate);
+
+        List<String> dates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            dates.add(date.toString());
+        }
+
+        int[] business = slotGrid.getBusinessSlots();
+        List<Map<String, Object>> rows = new ArrayList<>(venues.size());
+        for (Venue venue : venues) {
+            List<String> occupancy = new ArrayList<>(dates.size());
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                occupancy.add(slotGrid.toHex(slotIndexService.getOccupancy(venue.getId(), date), business[0], business[1]));
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("venue_id", venue.getId());
+            row.put("name", venue.getName());
+            row.put("capacity", venue.getCapacity());
+            row.put("occupancy", occupancy);
+            rows.add(row);
+        }
+
+        result.put("success", true);
+        result.put("start_date", startDate.toString());
+        result.put("end_date", endDate.toString());
+        result.put("opening_time", slotGrid.getOpeningTime().toString());
+        result.put("closing_time", slotGrid.getClosingTime().toString());
+        result.put("granularity_minutes", slotGrid.getGranularityMinutes());
+        result.put("slots_per_day", business[1] - business[0]);
+        result.put("dates", dates);
+        result.put("venues", rows);
+        return result;
+    }
+
+    /**
+     * Check many (venueId, date, startTime, endTime) tuples at once. Tuples are
+     * grouped by venue and split into date ranges of at most the matrix limit;
+     * each group is loaded with at most one query and every tuple is answered
+     * by the slot index overlap check. Tuples of unknown or inactive venues, and
+     * dates outside today to booking.batch.horizon-days, get an error instead,
+     * so a request can only make the index hold days that can still be booked.
+     * @param checks Tuples with venueId, date (YYYY-MM-DD), startTime and endTime (HH:mm)
+     * @return Map with one result per tuple, in request order
+     */
+    public Map<String, Object> checkBatch(List<Map<String, Object>> checks) {
+        Map<String, Object> result = new HashMap<>();
+        if (checks == null || checks.isEmpty()) {
+            result.put("success", false);
+            result.put("error", "No availability checks given");
+            return result;
+        }
+        if (checks.size() > maxBatchChecks) {
+            result.put("success", false);
+            result.put("error", "At most " + maxBatchChecks + " checks are allowed per request");
+            return result;
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = today.plusDays(batchHorizonDays);
+        List<Map<String, Object>> results = new ArrayList<>(checks.size());
+        List<SlotCheck> parsed = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            Map<String, Object> check = checks.get(i);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("index", i);
+            results.add(entry);
+            try {
+                SlotCheck slotCheck = SlotCheck.parse(check);
+                entry.put("venueId", slotCheck.venueId);
+                entry.put("date", slotCheck.date.toString());
+                entry.put("startTime", slotCheck.startTime.toString());
+                entry.put("endTime", slotCheck.endTime.toString());
+                if (!slotCheck.endTime.isAfter(slotCheck.startTime)) {
+                    entry.put("error", "End time must be after start time");
+                    continue;
+                }
+                if (slotCheck.date.isBefore(today) || slotCheck.date.isAfter(horizon)) {
+                    entry.put("error", "Date must be between today and " + horizon);
+                    continue;
+                }
+                slotCheck.entry = entry;
+                parsed.add(slotCheck);
+            } catch (RuntimeException e) {
+                entry.put("error", "Invalid check: venueId, date, startTime and endTime are required");
+            }
+        }
+
+        // Unknown and inactive venues are answered without touching the slot index
+        Set<Long> requestedVenueIds = parsed.stream().map(c -> c.venueId).collect(Collectors.toSet());
+        Set<Long> activeVenueIds = new HashSet<>();
+        for (Venue venue : venueRepository.findAllById(requestedVenueIds)) {
+            if (Boolean.TRUE.equals(venue.getIsActive())) {
+                activeVenueIds.add(venue.getId());
+            }
+        }
+        List<SlotCheck> valid = new ArrayList<>(parsed.size());
+        for (SlotCheck check : parsed) {
+            if (activeVenueIds.contains(check.venueId)) {
+                valid.add(check);
+            } else {
+                check.entry.put("error", "Venue not found");
+            }
+        }
+
+        Map<Long, List<SlotCheck>> byVenue = valid.stream()
+            .collect(Collectors.groupingBy(c -> c.venueId, LinkedHashMap::new, Collectors.toList()));
+        int groups = 0;
+        for (Map.Entry<Long, List<SlotCheck>> venueChecks : byVenue.entrySet()) {
+            List<LocalDate> dates = venueChecks.getValue().stream()
+                .map(c -> c.date).distinct().sorted().collect(Collectors.toList());
+            LocalDate rangeStart = dates.get(0);
+            LocalDate previous = rangeStart;
+            for (LocalDate date : dates) {
+                if (ChronoUnit.DAYS.between(rangeStart, date) >= maxMatrixDays) {
+                    slotIndexService.preload(venueChecks.getKey(), rangeStart, previous);
+                    groups++;
+                    rangeStart = date;
+                }
+                previous = date;
+            }
+            slotIndexService.preload(venueChecks.getKey(), rangeStart, previous);
+            groups++;
+        }
+
+        int available = 0;
+        for (SlotCheck check : valid) {
+            SlotIndexService.SlotInterval overlap =
+                slotIndexService.findOverlap(check.venueId, check.date, check.startTime, check.endTime);
+            check.entry.put("available", overlap == null);
+            if (overlap == null) {
+                available++;
+            } else {
+                check.entry.put("conflictStartTime", overlap.getStartTime().toString());
+                check.entry.put("conflictEndTime", overlap.getEndTime().toString());
+            }
+        }
+
+        result.put("success", true);
+        result.put("checked", valid.size());
+        result.put("available_count", available);
+        result.put("groups", groups);
+        result.put("results", results);
+        return result;
+    }
+
+    private static class SlotCheck {
+        private Long venueId;
+        private LocalDate date;
+        private LocalTime startTime;
+        private LocalTime endTime;
+        private Map<String, Object> entry;
+
+        static SlotCheck parse(Map<String, Object> check) {
+            SlotCheck slotCheck = new SlotCheck();
+            slotCheck.venueId = Long.parseLong(check.get("venueId").toString());
+            slotCheck.date = LocalDate.parse(check.get("date").toString());
+            slotCheck.startTime = LocalTime.parse(check.get("startTime").toString());
+            slotCheck.endTime = LocalTime.parse(check.get("endTime").toString());
+            return slotCheck;
+        }
+    }
+}
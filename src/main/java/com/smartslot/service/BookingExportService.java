@@ -0,0 +1,177 @@
+package com.smartslot.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartslot.model.Booking;
+import com.smartslot.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Streams the full booking history for audits.
+ *
+ * Bookings are read through a forward-only result stream inside one read-only
+ * transaction and written to the output as they arrive. Each booking and its
+ * user are detached once written, so memory stays flat however many rows are
+ * exported. Venues are few and stay attached for the rest of the export.
+ */
+@Service
+public class BookingExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExportService.class);
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final String[] COLUMNS = {
+        "id", "title", "status", "booking_date", "start_time", "end_time", "venue_id", "venue_name",
+        "user_email", "user_name", "purpose", "expected_attendees", "recurring_info",
+        "created_at", "updated_at", "approved_at", "approved_by", "confirmed_at"
+    };
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Check whether a format name is supported
+     * @param format Format name
+     * @return boolean true for ndjson or csv
+     */
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_NDJSON.equals(format) || FORMAT_CSV.equals(format);
+    }
+
+    /**
+     * Write every booking to an output stream, oldest first
+     * @param format ndjson or csv
+     * @param out Destination, not closed by this method
+     * @return Number of bookings written
+     * @throws IOException if writing to the destination fails
+     */
+    public long export(String format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long written;
+        try {
+            written = readOnly.execute(status -> {
+                try (Stream<Booking> bookings = bookingRepository.streamAllWithUserAndVenue()) {
+                    return FORMAT_CSV.equals(format) ? writeCsv(bookings, writer) : writeNdjson(bookings, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Exported {} bookings as {}", written, format);
+        return written;
+    }
+
+    private long writeNdjson(Stream<Booking> bookings, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Records are separated by the newline written below, not Jackson's default space
+        generator.setRootValueSeparator(null);
+        long count = 0;
+        for (Booking booking : (Iterable<Booking>) bookings::iterator) {
+            Object[] values = values(booking);
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeFieldName(COLUMNS[i]);
+                if (values[i] == null) {
+                    generator.writeNull();
+                } else if (values[i] instanceof Number) {
+                    generator.writeNumber(((Number) values[i]).longValue());
+                } else {
+                    generator.writeString(values[i].toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            detach(booking);
+            count++;
+        }
+        generator.flush();
+        return count;
+    }
+
+    private long writeCsv(Stream<Booking> bookings, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        long count = 0;
+        for (Booking booking : (Iterable<Booking>) bookings::iterator) {
+            Object[] values = values(booking);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeCsvField(writer, values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+            detach(booking);
+            count++;
+        }
+        return count;
+    }
+
+    private Object[] values(Booking booking) {
+        return new Object[] {
+            booking.getId(), booking.getTitle(), booking.getStatus(), booking.getBookingDate(),
+            booking.getStartTime(), booking.getEndTime(), booking.getVenue().getId(), booking.getVenue().getName(),
+            booking.getUser().getEmail(), booking.getUser().getName(), booking.getPurpose(),
+            booking.getExpectedAttendees(), booking.getRecurringInfo(), booking.getCreatedAt(),
+            booking.getUpdatedAt(), booking.getApprovedAt(), booking.getApprovedBy(), booking.getConfirmedAt()
+        };
+    }
+
+    private void detach(Booking booking) {
+        entityManager.detach(booking);
+        entityManager.detach(booking.getUser());
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        // RFC 4180: quote fields containing separators, quotes or line breaks and double embedded quotes
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
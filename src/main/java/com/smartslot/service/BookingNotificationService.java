@@ -0,0 +1,294 @@
+package com.smartslot.service;
+
+import com.smartslot.model.OutboxEmail;
+import com.smartslot.repository.OutboxEmailRepository;
+import com.smartslot.util.EmailUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers booking notification emails through a transactional outbox.
+ *
+ * enqueue() only inserts an email_outbox row, joining the caller's transaction
+ * when there is one, so an email is sent exactly when the change it announces
+ * commits and no request thread ever waits on the mail server. A dispatcher
+ * thread is woken after commit and also polls for retries and rows left by
+ * other nodes. It claims due rows in batches with a claim token and a lease,
+ * so nodes never send the same row twice and rows of a node that died
+ * mid-send are picked up again once the lease ends. A batch is split into
+ * chunks that a bounded worker pool sends over one SMTP connection each.
+ * Failed emails are retried with exponential backoff and moved to DEAD once
+ * their attempts are exhausted.
+ */
+@Service
+public class BookingNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingNotificationService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailUtil emailUtil;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${booking.notifications.workers:2}")
+    private int workers;
+
+    @Value("${booking.notifications.batch-size:50}")
+    private int batchSize;
+
+    @Value("${booking.notifications.chunk-size:10}")
+    private int chunkSize;
+
+    @Value("${booking.notifications.poll-ms:5000}")
+    private long pollMs;
+
+    @Value("${booking.notifications.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${booking.notifications.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${booking.notifications.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${booking.notifications.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${booking.notifications.retention-days:7}")
+    private int retentionDays;
+
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void init() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::drain, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Rows being sent keep their lease and are retried after a restart
+        dispatcher.shutdownNow();
+        senders.shutdown();
+    }
+
+    /**
+     * Add an email to the outbox. Inside a transaction the row commits or rolls
+     * back with the caller's changes and delivery starts after commit.
+     * @param to Recipient address
+     * @param subject Subject
+     * @param body Plain text body
+     */
+    public void enqueue(String to, String subject, String body) {
+        enqueue(to, subject, body, null);
+    }
+
+    /**
+     * Add a rendered notification to the outbox, see enqueue(String, String, String)
+     * @param to Recipient address
+     * @param notification Rendered notification
+     */
+    public void enqueue(String to, NotificationTemplateService.Notification notification) {
+        enqueue(to, notification.getSubject(), notification.getText(), notification.getHtml());
+    }
+
+    private void enqueue(String to, String subject, String body, String htmlBody) {
+        if (to == null) {
+            return;
+        }
+        outboxEmailRepository.save(new OutboxEmail(to, subject, body, htmlBody));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+            });
+        } else {
+            wake();
+        }
+    }
+
+    /**
+     * Delete sent emails past their retention; dead ones are kept for inspection
+     */
+    @Scheduled(cron = "0 40 0 * * *")
+    public void purgeSent() {
+        LocalDateTime sentBefore = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboxEmailRepository.deleteSentBefore(sentBefore));
+        logger.info("Purged {} sent outbox emails", deleted);
+    }
+
+    private void wake() {
+        // One queued drain picks up everything committed before it starts
+        if (wakeRequested.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Shutting down; the rows are sent after the restart
+                wakeRequested.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        wakeRequested.set(false);
+        try {
+            while (dispatchBatch()) {
+                // A full batch was claimed, more rows may be due
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to dispatch outbox emails", e);
+        }
+    }
+
+    /**
+     * Claim a batch of due emails and send it
+     * @return Whether the batch was full
+     */
+    private boolean dispatchBatch() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        int[] due = new int[1];
+        List<OutboxEmail> claimed = transactionTemplate.execute(status -> {
+            List<Long> ids = outboxEmailRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            due[0] = ids.size();
+            if (ids.isEmpty()) {
+                return Collections.<OutboxEmail>emptyList();
+            }
+            outboxEmailRepository.claim(ids, token, now, now.plus(leaseMs, ChronoUnit.MILLIS));
+            return outboxEmailRepository.findByClaimToken(token);
+        });
+        if (claimed.isEmpty()) {
+            return due[0] == batchSize;
+        }
+
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<OutboxEmail> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            chunks.add(() -> {
+                send(token, chunk);
+                return null;
+            });
+        }
+        try {
+            // Waiting for the batch keeps at most one batch in flight per node
+            senders.invokeAll(chunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return due[0] == batchSize;
+    }
+
+    private void send(String token, List<OutboxEmail> emails) {
+        Map<OutboxEmail, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, OutboxEmail> byMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        for (OutboxEmail email : emails) {
+            try {
+                MimeMessage message = emailUtil.createMessage(email.getRecipient(), email.getSubject(),
+                    email.getBody(), email.getHtmlBody());
+                messages.add(message);
+                byMessage.put(message, email);
+            } catch (MailException e) {
+                failures.put(email, e);
+            }
+        }
+
+        try {
+            if (!messages.isEmpty()) {
+                emailUtil.sendEmails(messages.toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            // Empty when only closing the connection failed after every message was accepted
+            e.getFailedMessages().forEach((message, error) -> {
+                OutboxEmail email = byMessage.get(message);
+                if (email != null) {
+                    failures.put(email, error);
+                }
+            });
+        } catch (MailException e) {
+            byMessage.values().forEach(email -> failures.put(email, e));
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (OutboxEmail email : emails) {
+            if (!failures.containsKey(email)) {
+                sentIds.add(email.getId());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxEmailRepository.markSent(sentIds, token, now);
+            }
+            failures.forEach((email, error) -> recordFailure(token, email, error, now));
+        });
+    }
+
+    private void recordFailure(String token, OutboxEmail email, Exception error, LocalDateTime now) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (email.getAttempts() >= maxAttempts) {
+            outboxEmailRepository.markDead(email.getId(), token, message);
+            logger.error("Giving up on \"{}\" email {} to {} after {} attempts: {}",
+                email.getSubject(), email.getId(), email.getRecipient(), email.getAttempts(), message);
+        } else {
+            long delay = Math.min(maxBackoffMs, backoffMs << Math.min(email.getAttempts() - 1, 20));
+            outboxEmailRepository.markRetry(email.getId(), token, now.plus(delay, ChronoUnit.MILLIS), message);
+            logger.warn("Failed to send \"{}\" email {} to {}, retrying in {} ms: {}",
+                email.getSubject(), email.getId(), email.getRecipient(), delay, message);
+        }
+    }
+}
@@ -1,26 +1,45 @@
 package com.smartslot.service;
 
+import com.smartslot.dto.UserBookingView;
 import com.smartslot.model.Booking;
 import com.smartslot.model.User;
 import com.smartslot.model.Venue;
+import com.smartslot.model.VenueDayOccupancy;
+import com.smartslot.model.WaitlistEntry;
 import com.smartslot.repository.BookingRepository;
 import com.smartslot.repository.UserRepository;
 import com.smartslot.repository.VenueRepository;
 import com.smartslot.util.OtpUtil;
-import com.smartslot.util.EmailUtil;
+import com.smartslot.util.RecurrenceRule;
+import com.smartslot.util.SlotGrid;
+import com.smartslot.util.VenueDayLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
     
+    private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
+    
     @Autowired
     private BookingRepository bookingRepository;
     
@@ -32,8 +51,70 @@ public class BookingService {
     
     @Autowired
     private OtpUtil otpUtil;
+    
+    @Autowired
+    private SlotIndexService slotIndexService;
+    
+    @Autowired
+    private SlotSuggestionService slotSuggestionService;
+    
+    @Autowired
+    private VenueDayLocks venueDayLocks;
+    
+    @Autowired
+    private SlotClaimService slotClaimService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private SlotGrid slotGrid;
+    
+    @Autowired
+    private VenueDayOccupancyService venueDayOccupancyService;
+    
+    @Autowired
+    private VenueDayVersionService venueDayVersionService;
+    
+    @Autowired
+    private SlotEventService slotEventService;
+    
+    @Autowired
+    private PendingFeedService pendingFeedService;
+    
+    @Autowired
+    private WaitlistService waitlistService;
+    
     @Autowired
-    private EmailUtil emailUtil;
+    private PendingExpiryService pendingExpiryService;
+    
+    @Autowired
+    private BookingNotificationService bookingNotificationService;
+    
+    @Autowired
+    private NotificationTemplateService notificationTemplateService;
+    
+    @Value("${booking.recurring.max-occurrences:52}")
+    private int maxRecurringOccurrences;
+    
+    @Value("${booking.pending.sweep-chunk-size:500}")
+    private int sweepChunkSize;
+    
+    @Value("${booking.admin.page-size:50}")
+    private int adminPageSize;
+    
+    @Value("${booking.admin.max-page-size:200}")
+    private int adminMaxPageSize;
+    
+    private final AtomicLong sweepRuns = new AtomicLong();
+    private final AtomicLong sweepExpiredTotal = new AtomicLong();
+    private volatile Map<String, Object> lastSweepStats = Map.of();
+    
+    @PostConstruct
+    public void init() {
+        pendingExpiryService.setExpiryHandler(bookingIds -> expireBookings(bookingIds,
+            LocalDateTime.now().minusMinutes(pendingExpiryService.getExpiryMinutes())));
+    }
     
     /**
      * Create new booking
@@ -43,28 +124,49 @@ public class BookingService {
      */
     public Map<String, Object> createBooking(Booking booking, User user) {
         Map<String, Object> response = new HashMap<>();
+        Long venueId = booking.getVenue().getId();
+        Booking savedBooking;
+        String otp;
         
-        // Check for conflicts
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-            booking.getVenue(), booking.getBookingDate(), 
-            booking.getStartTime(), booking.getEndTime()
-        );
+        String gridError = checkGridAlignment(booking.getStartTime(), booking.getEndTime());
+        if (gridError != null) {
+            response.put("success", false);
+            response.put("error", gridError);
+            return response;
+        }
         
-        if (!conflicts.isEmpty()) {
+        // Conflict check and insert must not interleave with another writer for the same venue-day
+        venueDayLocks.lock(venueId, booking.getBookingDate());
+        try {
+            List<Booking> conflicts = bookingRepository.findConflictingBookings(
+                booking.getVenue(), booking.getBookingDate(), 
+                booking.getStartTime(), booking.getEndTime()
+            );
+            
+            if (!conflicts.isEmpty()) {
+                response.put("success", false);
+                response.put("error", "Time slot conflicts with existing booking");
+                response.put("conflicting_booking", conflicts.get(0));
+                return response;
+            }
+            
+            // Set user and generate OTP
+            booking.setUser(user);
+            otp = otpUtil.generateOtp();
+            booking.setOtpCode(otp);
+            booking.setOtpExpiresAt(otpUtil.getOtpExpiryTime());
+            
+            savedBooking = insertBooking(booking);
+        } catch (DataIntegrityViolationException e) {
+            // Slot was claimed by a writer on another node since this node last loaded the day
+            slotIndexService.evict(venueId, booking.getBookingDate());
             response.put("success", false);
             response.put("error", "Time slot conflicts with existing booking");
-            response.put("conflicting_booking", conflicts.get(0));
             return response;
+        } finally {
+            venueDayLocks.unlock(venueId, booking.getBookingDate());
         }
         
-        // Set user and generate OTP
-        booking.setUser(user);
-        String otp = otpUtil.generateOtp();
-        booking.setOtpCode(otp);
-        booking.setOtpExpiresAt(otpUtil.getOtpExpiryTime());
-        
-        Booking savedBooking = bookingRepository.save(booking);
-        
         response.put("success", true);
         response.put("booking_id", savedBooking.getId());
         response.put("otp", otp);
@@ -94,6 +196,7 @@ public class BookingService {
         if (otpUtil.validateOtp(providedOtp, booking.getOtpCode(), booking.getOtpExpiresAt())) {
             booking.setOtpVerified(true);
             bookingRepository.save(booking);
+            pendingFeedService.publish(booking.getId());
             
             response.put("success", true);
             response.put("message", "Booking confirmed successfully");
@@ -155,6 +258,23 @@ public class BookingService {
         }
     }
     
+    /**
+     * Get the booking list of a session user as read models, newest first
+     * @param userObj User object from session
+     * @return List of user booking views, empty if the user is unknown
+     */
+    public List<UserBookingView> getUserBookingViews(Object userObj) {
+        if (!(userObj instanceof User)) {
+            return new ArrayList<>();
+        }
+        User user = (User) userObj;
+        Long userId = user.getId();
+        if (userId == null && user.getEmail() != null) {
+            userId = userRepository.findByEmail(user.getEmail()).map(User::getId).orElse(null);
+        }
+        return userId != null ? bookingRepository.findUserBookingViews(userId) : new ArrayList<>();
+    }
+    
     /**
      * Get user bookings filtered by status
      * @param userObj User object from session
@@ -182,11 +302,113 @@ public class BookingService {
     }
     
     /**
-     * Get all bookings (admin only)
-     * @return List of all bookings
+     * Get one page of bookings (admin/staff), newest first. Pages are keyed on
+     * (createdAt, id) rather than an offset, so fetching any page costs the
+     * same however deep into the history it is.
+     * @param status Status filter, optional
+     * @param venueId Venue filter, optional
+     * @param fromDate Earliest booking date (YYYY-MM-DD), optional
+     * @param toDate Latest booking date (YYYY-MM-DD), optional
+     * @param cursor Continuation token from the previous page, optional
+     * @param size Page size, defaults to booking.admin.page-size and is capped at booking.admin.max-page-size
+     * @return Map containing the bookings and next_cursor (null on the last page)
      */
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAllWithUserAndVenue();
+    public Map<String, Object> getBookingsPage(String status, Long venueId, String fromDate, String toDate,
+                                               String cursor, Integer size) {
+        Map<String, Object> result = new HashMap<>();
+        Booking.BookingStatus statusFilter = null;
+        LocalDate from = null;
+        LocalDate to = null;
+        LocalDateTime beforeCreatedAt = null;
+        Long beforeId = null;
+        try {
+            if (status != null && !status.isBlank()) {
+                statusFilter = Booking.BookingStatus.valueOf(status.trim().toUpperCase());
+            }
+            if (fromDate != null && !fromDate.isBlank()) {
+                from = LocalDate.parse(fromDate);
+            }
+            if (toDate != null && !toDate.isBlank()) {
+                to = LocalDate.parse(toDate);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            result.put("success", false);
+            result.put("error", "Invalid status or date filter");
+            return result;
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            result.put("success", false);
+            result.put("error", "End date must not be before start date");
+            return result;
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                beforeCreatedAt = LocalDateTime.parse(parts[0]);
+                beforeId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                result.put("success", false);
+                result.put("error", "Invalid cursor");
+                return result;
+            }
+        }
+        int limit = size == null || size < 1 ? adminPageSize : Math.min(size, adminMaxPageSize);
+        
+        // One extra row tells whether another page exists without a COUNT
+        List<Booking> bookings = bookingRepository.findPage(statusFilter, venueId, from, to,
+            beforeCreatedAt, beforeId, limit + 1);
+        String nextCursor = null;
+        if (bookings.size() > limit) {
+            bookings = bookings.subList(0, limit);
+            Booking last = bookings.get(limit - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        result.put("success", true);
+        result.put("bookings", bookings);
+        result.put("size", limit);
+        result.put("next_cursor", nextCursor);
+        return result;
+    }
+    
+    /**
+     * Get booking counts per status for the admin dashboard
+     * @return Map of status name to count, with a "TOTAL" entry
+     */
+    public Map<String, Long> getBookingCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Booking.BookingStatus status : Booking.BookingStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        long total = 0;
+        for (Object[] row : bookingRepository.countGroupedByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            counts.put(((Booking.BookingStatus) row[0]).name(), count);
+            total += count;
+        }
+        counts.put("TOTAL", total);
+        return counts;
+    }
+    
+    /**
+     * Get booking totals for the analytics dashboard, aggregated in the database
+     * @param topUsers Number of users with the most bookings to return
+     * @return Map containing the status counts, the number of users with bookings
+     *         and the top users with their booking counts
+     */
+    public Map<String, Object> getBookingAnalytics(int topUsers) {
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (Object[] row : bookingRepository.countGroupedByUser(PageRequest.of(0, topUsers))) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("email", row[0]);
+            user.put("count", ((Number) row[1]).longValue());
+            users.add(user);
+        }
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("counts", getBookingCounts());
+        analytics.put("uniqueUsers", bookingRepository.countDistinctUsers());
+        analytics.put("topUsers", users);
+        return analytics;
     }
     
     /**
@@ -225,36 +447,17 @@ public class BookingService {
         booking.setApprovedAt(LocalDateTime.now());
         booking.setConfirmedAt(LocalDateTime.now());
         booking.setApprovedBy(approvedBy);
-        bookingRepository.save(booking);
-        // Send approval email
+        // Queue the approval email in the same transaction as the status change
+        Consumer<Booking> notification = saved -> { };
         if (booking.getUser() != null && booking.getUser().getEmail() != null) {
-            String emailContent = String.format(
-                "Dear %s,\n\n" +
-                "🎉 Your booking has been CONFIRMED!\n\n" +
-                "Booking Details:\n" +
-                "• Booking ID: %d\n" +
-                "• Venue: %s\n" +
-                "• Date: %s\n" +
-                "• Time: %s - %s\n" +
-                "• Purpose: %s\n\n" +
-                "Your venue booking is now confirmed and ready for use. Please arrive on time and enjoy your event!\n\n" +
-                "If you have any questions, please contact the administration.\n\n" +
-                "Best regards,\nSmart Slot Booking System",
-                booking.getUser().getName(),
-                booking.getId(),
-                booking.getVenue().getName(),
-                booking.getBookingDate(),
-                booking.getStartTime(),
-                booking.getEndTime(),
-                booking.getPurpose()
-            );
-            
-            emailUtil.sendEmail(
-                booking.getUser().getEmail(),
-                "🎉 Booking Confirmed - Smart Slot Booking System",
-                emailContent
-            );
+            String email = booking.getUser().getEmail();
+            NotificationTemplateService.Notification confirmed = notificationTemplateService.render(
+                NotificationTemplateService.Template.BOOKING_CONFIRMED,
+                booking.getUser().getName(), booking.getId(), booking.getVenue().getName(),
+                booking.getBookingDate(), booking.getStartTime(), booking.getEndTime(), booking.getPurpose());
+            notification = saved -> bookingNotificationService.enqueue(email, confirmed);
         }
+        saveStatusChange(booking, notification);
         
         response.put("success", true);
         response.put("message", "Booking confirmed successfully");
@@ -287,40 +490,17 @@ public class BookingService {
         }
         
         booking.setStatus(Booking.BookingStatus.REJECTED);
-        bookingRepository.save(booking);
-        // Send rejection email
+        // Queue the rejection email in the same transaction as the status change
+        Consumer<Booking> notification = saved -> { };
         if (booking.getUser() != null && booking.getUser().getEmail() != null) {
-            String emailContent = String.format(
-                "Dear %s,\n\n" +
-                "❌ Your booking has been REJECTED\n\n" +
-                "Booking Details:\n" +
-                "• Booking ID: %d\n" +
-                "• Venue: %s\n" +
-                "• Date: %s\n" +
-                "• Time: %s - %s\n" +
-                "• Purpose: %s\n\n" +
-                "Unfortunately, your venue booking request could not be approved at this time. This may be due to:\n" +
-                "• Venue unavailability\n" +
-                "• Scheduling conflicts\n" +
-                "• Administrative requirements\n\n" +
-                "You can submit a new booking request for a different time slot or venue.\n\n" +
-                "If you have any questions, please contact the administration.\n\n" +
-                "Best regards,\nSmart Slot Booking System",
-                booking.getUser().getName(),
-                booking.getId(),
-                booking.getVenue().getName(),
-                booking.getBookingDate(),
-                booking.getStartTime(),
-                booking.getEndTime(),
-                booking.getPurpose()
-            );
-            
-            emailUtil.sendEmail(
-                booking.getUser().getEmail(),
-                "❌ Booking Rejected - Smart Slot Booking System",
-                emailContent
-            );
+            String email = booking.getUser().getEmail();
+            NotificationTemplateService.Notification rejected = notificationTemplateService.render(
+                NotificationTemplateService.Template.BOOKING_REJECTED,
+                booking.getUser().getName(), booking.getId(), booking.getVenue().getName(),
+                booking.getBookingDate(), booking.getStartTime(), booking.getEndTime(), booking.getPurpose());
+            notification = saved -> bookingNotificationService.enqueue(email, rejected);
         }
+        saveStatusChange(booking, notification);
         
         response.put("success", true);
         response.put("message", "Booking rejected successfully");
@@ -361,7 +541,7 @@ public class BookingService {
         }
         
         booking.setStatus(Booking.BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        saveStatusChange(booking);
         
         response.put("success", true);
         response.put("message", "Booking cancelled successfully");
@@ -404,7 +584,7 @@ public class BookingService {
         
         Booking booking = optionalBooking.get();
         booking.setStatus(Booking.BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        saveStatusChange(booking);
         
         response.put("success", true);
         response.put("message", "Booking cancelled successfully");
@@ -429,39 +609,42 @@ public class BookingService {
         }
         
         Venue venue = optionalVenue.get();
-        List<Booking> existingBookings = bookingRepository.findByVenueAndBookingDate(venue, date);
         
-        // Generate time slots (9 AM to 6 PM, 1-hour slots)
-        List<Map<String, Object>> slots = new ArrayList<>();
-        for (int hour = 9; hour < 18; hour++) {
-            LocalTime startTime = LocalTime.of(hour, 0);
-            LocalTime endTime = LocalTime.of(hour + 1, 0);
-            
-            boolean available = existingBookings.stream()
-                .noneMatch(booking -> 
-                    booking.getStatus() != Booking.BookingStatus.CANCELLED &&
-                    booking.getStatus() != Booking.BookingStatus.REJECTED &&
-                    isTimeOverlapping(startTime, endTime, booking.getStartTime(), booking.getEndTime())
-                );
-            
-            Map<String, Object> slot = new HashMap<>();
-            slot.put("start_time", startTime.toString());
-            slot.put("end_time", endTime.toString());
-            slot.put("available", available);
-            slots.add(slot);
+        // One-hour slots over business hours, answered from a single read of the day's bitmap
+        int[] business = slotGrid.getBusinessSlots();
+        int slotsPerHour = 60 / slotGrid.getGranularityMinutes();
+        long[] occupancy = slotIndexService.getOccupancy(venueId, date);
+        List<Map<String, Object>> slots = new ArrayList<>((business[1] - business[0]) / slotsPerHour);
+        for (int from = business[0]; from < business[1]; from += slotsPerHour) {
+            int to = from + slotsPerHour;
+            slots.add(Map.of(
+                "start_time", slotGrid.boundaryLabel(from),
+                "end_time", slotGrid.boundaryLabel(to),
+                "available", !slotGrid.anyOccupied(occupancy, from, to)));
         }
         
         response.put("success", true);
         response.put("venue", venue);
         response.put("date", date.toString());
         response.put("slots", slots);
+        
+        List<Map<String, Object>> existingBookings = new ArrayList<>();
+        for (SlotIndexService.SlotInterval interval : slotIndexService.getIntervals(venueId, date)) {
+            Map<String, Object> existing = new HashMap<>();
+            existing.put("id", interval.getBookingId());
+            existing.put("start_time", interval.getStartTime().toString());
+            existing.put("end_time", interval.getEndTime().toString());
+            existing.put("status", interval.getStatus().toString());
+            existingBookings.add(existing);
+        }
         response.put("existing_bookings", existingBookings);
         
         return response;
     }
     
     /**
-     * Get calendar view for venue
+     * Get calendar view for venue. Only this venue's active bookings in the month
+     * are read, as slot columns, and grouped by day in a single pass.
      * @param venueId Venue ID
      * @param month Month
      * @param year Year
@@ -478,38 +661,16 @@ public class BookingService {
         }
         
         Venue venue = optionalVenue.get();
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-        
-        List<Booking> monthBookings = bookingRepository.findByBookingDateBetween(startDate, endDate);
-        
-        Map<String, Object> calendar = new HashMap<>();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            final LocalDate currentDate = date;
-            List<Booking> dayBookings = monthBookings.stream()
-                .filter(booking -> booking.getBookingDate().equals(currentDate) &&
-                                 booking.getVenue().getId().equals(venueId))
-                .toList();
-            
-            Map<String, Object> dayData = new HashMap<>();
-            dayData.put("bookings", dayBookings);
-            dayData.put("booking_count", dayBookings.size());
-            
-            // Determine availability
-            String availability = "full";
-            if (dayBookings.size() > 0) {
-                availability = dayBookings.size() >= 9 ? "none" : "partial";
-            }
-            dayData.put("availability", availability);
-            
-            calendar.put(date.toString(), dayData);
+        VenueCalendarBuilder builder = new VenueCalendarBuilder(slotGrid, YearMonth.of(year, month));
+        for (Object[] row : bookingRepository.findActiveSlotRows(venueId, builder.getFirstDay(), builder.getLastDay())) {
+            builder.add((LocalDate) row[2], (LocalTime) row[3], (LocalTime) row[4]);
         }
         
         response.put("success", true);
         response.put("venue", venue);
         response.put("month", month);
         response.put("year", year);
-        response.put("calendar", calendar);
+        response.put("calendar", builder.build());
         
         return response;
     }
@@ -541,18 +702,6 @@ public class BookingService {
         return booking.orElse(null);
     }
     
-    /**
-     * Check if two time ranges overlap
-     * @param start1 Start time of first range
-     * @param end1 End time of first range
-     * @param start2 Start time of second range
-     * @param end2 End time of second range
-     * @return boolean true if overlapping
-     */
-    private boolean isTimeOverlapping(LocalTime start1, LocalTime end1, LocalTime start2, LocalTime end2) {
-        return start1.isBefore(end2) && end1.isAfter(start2);
-    }
-    
     /**
      * Check if a slot is available for booking
      * @param venueId Venue ID
@@ -571,14 +720,7 @@ public class BookingService {
             return false;
         }
         
-        List<Booking> existingBookings = bookingRepository.findByVenueAndBookingDate(venue.get(), bookingDate);
-        
-        return existingBookings.stream()
-            .noneMatch(booking -> 
-                booking.getStatus() != Booking.BookingStatus.CANCELLED &&
-                booking.getStatus() != Booking.BookingStatus.REJECTED &&
-                isTimeOverlapping(start, end, booking.getStartTime(), booking.getEndTime())
-            );
+        return slotIndexService.isFree(venueId, bookingDate, start, end);
     }
     
     /**
@@ -623,7 +765,7 @@ public class BookingService {
             booking.setPurpose("General booking");
         }
         
-        return bookingRepository.save(booking);
+        return insertBooking(booking);
     }
 
     public void markOtpAsVerified(Long bookingId) {
@@ -632,6 +774,7 @@ public class BookingService {
             Booking booking = bookingOpt.get();
             booking.setOtpVerified(true);
             bookingRepository.save(booking);
+            pendingFeedService.publish(booking.getId());
         }
     }
     
@@ -645,7 +788,7 @@ public class BookingService {
             Booking b = booking.get();
             b.setStatus(Booking.BookingStatus.CONFIRMED);
             b.setConfirmedAt(LocalDateTime.now());
-            bookingRepository.save(b);
+            saveStatusChange(b);
         }
     }
     
@@ -666,19 +809,34 @@ public class BookingService {
     }
     
     /**
-     * Check if a day is available for a venue
+     * Get per-day availability for a venue over a date range with one range
+     * scan of the occupancy rollup. Days without a rollup row have no active bookings.
      * @param venueId Venue ID
-     * @param date Date to check
-     * @param bookings List of existing bookings
-     * @return boolean true if day is available
+     * @param start First date (inclusive)
+     * @param end Last date (inclusive)
+     * @return List of days with availability flag, booking count and first free time
      */
-    public boolean isDayAvailable(Long venueId, LocalDate date, List<Booking> bookings) {
-        return bookings.stream()
-            .filter(booking -> booking.getVenue().getId().equals(venueId) && 
-                              booking.getBookingDate().equals(date))
-            .filter(booking -> booking.getStatus() != Booking.BookingStatus.CANCELLED &&
-                              booking.getStatus() != Booking.BookingStatus.REJECTED)
-            .count() < 9; // Assuming 9 slots per day (9 AM to 6 PM)
+    public List<Map<String, Object>> getDayAvailability(Long venueId, LocalDate start, LocalDate end) {
+        Map<LocalDate, VenueDayOccupancy> occupancyByDate = new HashMap<>();
+        for (VenueDayOccupancy occupancy : venueDayOccupancyService.getRange(venueId, start, end)) {
+            occupancyByDate.put(occupancy.getBookingDate(), occupancy);
+        }
+        LocalTime opening = slotGrid.getOpeningTime();
+        
+        List<Map<String, Object>> days = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            VenueDayOccupancy occupancy = occupancyByDate.get(date);
+            LocalTime firstFree = occupancy != null
+                ? venueDayOccupancyService.toTime(occupancy.getFirstFreeSlot()) : opening;
+            Map<String, Object> day = new HashMap<>();
+            day.put("date", date.toString());
+            day.put("available", firstFree != null);
+            day.put("booking_count", occupancy != null ? occupancy.getActiveBookings() : 0);
+            day.put("booked_minutes", occupancy != null ? occupancy.getBookedMinutes() : 0);
+            day.put("first_free_time", firstFree != null ? firstFree.toString() : null);
+            days.add(day);
+        }
+        return days;
     }
     
     /**
@@ -690,44 +848,35 @@ public class BookingService {
      * @return Map with suggestions
      */
     public Map<String, Object> suggestAlternateSlots(Long venueId, String date, String startTime, String endTime) {
+        return suggestAlternateSlots(venueId, date, startTime, endTime, null, null, null);
+    }
+    
+    /**
+     * Suggest alternate booking slots within a search horizon, ranked by closeness to the request,
+     * plus the same time at other active venues ranked by capacity fit
+     * @param venueId Venue ID
+     * @param date Date string (YYYY-MM-DD)
+     * @param startTime Start time string (HH:mm)
+     * @param endTime End time string (HH:mm)
+     * @param horizonDays Days ahead to search (null for default)
+     * @param limit Maximum number of suggestions per list (null for default)
+     * @param attendees Expected attendees used for capacity fit (null to match the requested venue)
+     * @return Map with suggestions
+     */
+    public Map<String, Object> suggestAlternateSlots(Long venueId, String date, String startTime, String endTime,
+                                                     Integer horizonDays, Integer limit, Integer attendees) {
         Map<String, Object> result = new HashMap<>();
         LocalDate bookingDate = LocalDate.parse(date);
-        LocalTime requestedStart = LocalTime.parse(startTime);
-        LocalTime requestedEnd = LocalTime.parse(endTime);
+        LocalTime start = LocalTime.parse(startTime);
+        LocalTime end = LocalTime.parse(endTime);
         
         List<Map<String, Object>> suggestions = new ArrayList<>();
-        
-        // Suggest same time on different days (next 7 days)
-        for (int i = 1; i <= 7; i++) {
-            LocalDate suggestedDate = bookingDate.plusDays(i);
-            if (isSlotAvailable(venueId, suggestedDate.toString(), startTime, endTime)) {
-                Map<String, Object> suggestion = new HashMap<>();
-                suggestion.put("date", suggestedDate.toString());
-                suggestion.put("startTime", startTime);
-                suggestion.put("endTime", endTime);
-                suggestion.put("type", "same_time_different_day");
-                suggestions.add(suggestion);
-            }
-        }
-        
-        // Suggest different times on the same day
-        List<LocalTime> timeSlots = Arrays.asList(
-            LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(11, 0),
-            LocalTime.of(12, 0), LocalTime.of(13, 0), LocalTime.of(14, 0),
-            LocalTime.of(15, 0), LocalTime.of(16, 0), LocalTime.of(17, 0)
-        );
-        
-        for (LocalTime slot : timeSlots) {
-            LocalTime slotEnd = slot.plusHours(1);
-            if (!slot.equals(requestedStart) && 
-                isSlotAvailable(venueId, date, slot.toString(), slotEnd.toString())) {
-                Map<String, Object> suggestion = new HashMap<>();
-                suggestion.put("date", date);
-                suggestion.put("startTime", slot.toString());
-                suggestion.put("endTime", slotEnd.toString());
-                suggestion.put("type", "different_time_same_day");
-                suggestions.add(suggestion);
-            }
+        List<Map<String, Object>> otherVenueSuggestions = new ArrayList<>();
+        Optional<Venue> venue = venueRepository.findById(venueId);
+        if (venue.isPresent()) {
+            suggestions = slotSuggestionService.suggest(venueId, bookingDate, start, end, horizonDays, limit);
+            otherVenueSuggestions = slotSuggestionService.suggestOtherVenues(venue.get(),
+                venueRepository.findByIsActiveTrue(), bookingDate, start, end, attendees, limit);
         }
         
         result.put("original_request", Map.of(
@@ -736,8 +885,10 @@ public class BookingService {
             "startTime", startTime,
             "endTime", endTime
         ));
+        result.put("horizon_days", slotSuggestionService.resolveHorizon(horizonDays));
         result.put("suggestions", suggestions);
         result.put("suggestion_count", suggestions.size());
+        result.put("other_venue_suggestions", otherVenueSuggestions);
         
         return result;
     }
@@ -769,6 +920,13 @@ public class BookingService {
                 return result;
             }
             
+            String gridError = checkGridAlignment(start, end);
+            if (gridError != null) {
+                result.put("success", false);
+                result.put("error", gridError);
+                return result;
+            }
+            
             if (bookingDate.isBefore(LocalDate.now())) {
                 result.put("success", false);
                 result.put("error", "Cannot book for past dates");
@@ -782,17 +940,6 @@ public class BookingService {
                 return result;
             }
             
-            // Check for conflicts
-            BookingConflict conflict = checkBookingConflicts(venue.get(), bookingDate, start, end);
-            
-            if (conflict.hasConflict()) {
-                result.put("success", false);
-                result.put("error", conflict.getMessage());
-                result.put("conflictType", conflict.getType());
-                result.put("conflictingBooking", conflict.getConflictingBooking());
-                return result;
-            }
-            
             // Create booking
             Booking booking = new Booking();
             booking.setUser(user);
@@ -809,7 +956,32 @@ public class BookingService {
             // Always set to PENDING to require OTP verification
             booking.setStatus(Booking.BookingStatus.PENDING);
             
-            Booking savedBooking = bookingRepository.save(booking);
+            // Only writers competing for the same venue-day wait here; the check and
+            // the index update happen under the lock so no other writer sees a stale slot
+            Booking savedBooking;
+            venueDayLocks.lock(venueId, bookingDate);
+            try {
+                BookingConflict conflict = checkBookingConflicts(venue.get(), bookingDate, start, end);
+                
+                if (conflict.hasConflict()) {
+                    result.put("success", false);
+                    result.put("error", conflict.getMessage());
+                    result.put("conflictType", conflict.getType());
+                    result.put("conflictingBooking", conflict.getConflictingBooking());
+                    return result;
+                }
+                
+                savedBooking = insertBooking(booking);
+            } catch (DataIntegrityViolationException e) {
+                // Another node claimed one of the slots after this node last loaded the day
+                slotIndexService.evict(venueId, bookingDate);
+                result.put("success", false);
+                result.put("error", "Time slot conflicts with an existing booking");
+                result.put("conflictType", "CLAIMED");
+                return result;
+            } finally {
+                venueDayLocks.unlock(venueId, bookingDate);
+            }
             
             result.put("success", true);
             result.put("booking", savedBooking);
@@ -825,6 +997,180 @@ public class BookingService {
         }
     }
     
+    /**
+     * Create a recurring booking series. The rule is expanded into occurrences,
+     * every occurrence is checked against the venue's bookings loaded with one
+     * range query, and the accepted occurrences are inserted together in a
+     * single transaction.
+     * @param userObj User object
+     * @param venueId Venue ID
+     * @param startDate First occurrence date (YYYY-MM-DD)
+     * @param startTime Start time (HH:mm)
+     * @param endTime End time (HH:mm)
+     * @param rule Recurrence rule, e.g. FREQ=WEEKLY;BYDAY=MO,WE;COUNT=15
+     * @param title Booking title
+     * @param purpose Booking purpose
+     * @param skipConflicts Insert the free occurrences even if some conflict
+     * @return Map with the created bookings and a per-occurrence report
+     */
+    public Map<String, Object> createRecurringBooking(Object userObj, Long venueId, String startDate, String startTime,
+                                                      String endTime, String rule, String title, String purpose,
+                                                      boolean skipConflicts) {
+        Map<String, Object> result = new HashMap<>();
+        
+        try {
+            User user = (User) userObj;
+            LocalDate firstDate = LocalDate.parse(startDate);
+            LocalTime start = LocalTime.parse(startTime);
+            LocalTime end = LocalTime.parse(endTime);
+            
+            if (!start.isBefore(end)) {
+                result.put("success", false);
+                result.put("error", "Start time must be before end time");
+                return result;
+            }
+            
+            String gridError = checkGridAlignment(start, end);
+            if (gridError != null) {
+                result.put("success", false);
+                result.put("error", gridError);
+                return result;
+            }
+            
+            if (firstDate.isBefore(LocalDate.now())) {
+                result.put("success", false);
+                result.put("error", "Cannot book for past dates");
+                return result;
+            }
+            
+            RecurrenceRule recurrence;
+            try {
+                recurrence = RecurrenceRule.parse(rule);
+            } catch (IllegalArgumentException e) {
+                result.put("success", false);
+                result.put("error", e.getMessage());
+                return result;
+            }
+            if (recurrence.exceeds(firstDate, maxRecurringOccurrences)) {
+                result.put("success", false);
+                result.put("error", "A recurring booking cannot have more than " + maxRecurringOccurrences + " occurrences");
+                return result;
+            }
+            List<LocalDate> dates = recurrence.expand(firstDate, maxRecurringOccurrences);
+            if (dates.isEmpty()) {
+                result.put("success", false);
+                result.put("error", "The recurrence rule produces no dates on or after the start date");
+                return result;
+            }
+            
+            Optional<Venue> venue = venueRepository.findById(venueId);
+            if (venue.isEmpty()) {
+                result.put("success", false);
+                result.put("error", "Venue not found");
+                return result;
+            }
+            
+            String seriesId = UUID.randomUUID().toString();
+            String recurringInfo = recurrence + ";SERIES=" + seriesId;
+            List<Map<String, Object>> occurrences = new ArrayList<>(dates.size());
+            List<Booking> accepted = new ArrayList<>();
+            List<Booking> savedBookings;
+            
+            venueDayLocks.lockAll(venueId, dates);
+            try {
+                slotIndexService.preload(venueId, dates.get(0), dates.get(dates.size() - 1));
+                
+                for (LocalDate date : dates) {
+                    Map<String, Object> occurrence = new LinkedHashMap<>();
+                    occurrence.put("date", date.toString());
+                    SlotIndexService.SlotInterval overlap = findConfirmedOverlap(venueId, date, start, end);
+                    if (overlap != null) {
+                        occurrence.put("status", "CONFLICT");
+                        occurrence.put("conflictType", overlap.getStatus().toString());
+                        occurrence.put("conflictStartTime", overlap.getStartTime().toString());
+                        occurrence.put("conflictEndTime", overlap.getEndTime().toString());
+                    } else {
+                        Booking booking = new Booking();
+                        booking.setUser(user);
+                        booking.setVenue(venue.get());
+                        booking.setBookingDate(date);
+                        booking.setStartTime(start);
+                        booking.setEndTime(end);
+                        booking.setTitle(title != null ? title : "Recurring booking for " + venue.get().getName());
+                        booking.setPurpose(purpose != null ? purpose : "General booking");
+                        booking.setDescription("Booking from " + startTime + " to " + endTime + " at " + venue.get().getName());
+                        booking.setRecurringInfo(recurringInfo);
+                        booking.setStatus(Booking.BookingStatus.PENDING);
+                        booking.setCreatedAt(LocalDateTime.now());
+                        accepted.add(booking);
+                        occurrence.put("status", "AVAILABLE");
+                    }
+                    occurrences.add(occurrence);
+                }
+                
+                int conflicts = dates.size() - accepted.size();
+                if (accepted.isEmpty() || (conflicts > 0 && !skipConflicts)) {
+                    result.put("success", false);
+                    result.put("error", accepted.isEmpty()
+                        ? "Every occurrence conflicts with an existing booking"
+                        : conflicts + " of " + dates.size() + " occurrences conflict with existing bookings");
+                    result.put("occurrences", occurrences);
+                    return result;
+                }
+                
+                savedBookings = insertBookings(venueId, accepted);
+            } catch (DataIntegrityViolationException e) {
+                // Another node claimed one of the slots after this node last loaded the range
+                dates.forEach(date -> slotIndexService.evict(venueId, date));
+                result.put("success", false);
+                result.put("error", "One of the occurrences conflicts with a booking made on another node, please retry");
+                result.put("conflictType", "CLAIMED");
+                return result;
+            } finally {
+                venueDayLocks.unlockAll(venueId, dates);
+            }
+            
+            Iterator<Booking> saved = savedBookings.iterator();
+            for (Map<String, Object> occurrence : occurrences) {
+                if ("AVAILABLE".equals(occurrence.get("status"))) {
+                    occurrence.put("status", "CREATED");
+                    occurrence.put("bookingId", saved.next().getId());
+                }
+            }
+            
+            result.put("success", true);
+            result.put("seriesId", seriesId);
+            result.put("rule", recurrence.toString());
+            result.put("bookings", savedBookings);
+            result.put("created", savedBookings.size());
+            result.put("conflicts", dates.size() - savedBookings.size());
+            result.put("occurrences", occurrences);
+            result.put("message", savedBookings.size() + " bookings created successfully! Please check your email for OTP verification.");
+            
+            return result;
+            
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("error", "Failed to create recurring booking: " + e.getMessage());
+            return result;
+        }
+    }
+    
+    /**
+     * Check that a time range starts and ends on the slot grid. Slot claims
+     * cover every slot a booking touches, so an off-grid booking would collide
+     * with a neighbour it does not overlap.
+     * @param startTime Start time
+     * @param endTime End time
+     * @return Error message, or null if both times are on the grid
+     */
+    private String checkGridAlignment(LocalTime startTime, LocalTime endTime) {
+        if (slotGrid.isAligned(startTime) && slotGrid.isAligned(endTime)) {
+            return null;
+        }
+        return "Start and end times must be on a " + slotGrid.getGranularityMinutes() + "-minute boundary";
+    }
+    
     /**
      * Check for booking conflicts
      * @param venue Venue
@@ -834,58 +1180,179 @@ public class BookingService {
      * @return BookingConflict object
      */
     private BookingConflict checkBookingConflicts(Venue venue, LocalDate date, LocalTime startTime, LocalTime endTime) {
-        List<Booking> existingBookings = bookingRepository.findByVenueAndBookingDate(venue, date);
+        SlotIndexService.SlotInterval overlap = findConfirmedOverlap(venue.getId(), date, startTime, endTime);
+        if (overlap == null) {
+            return new BookingConflict(false, null, null, null);
+        }
         
-        for (Booking existingBooking : existingBookings) {
-            // Skip cancelled and rejected bookings
-            if (existingBooking.getStatus() == Booking.BookingStatus.CANCELLED || 
-                existingBooking.getStatus() == Booking.BookingStatus.REJECTED) {
-                continue;
+        // Only the conflicting row is loaded, and only to describe it in the response
+        Booking existingBooking = bookingRepository.findById(overlap.getBookingId()).orElse(null);
+        String status = overlap.getStatus().toString();
+        String message = "Time slot conflicts with existing " + status.toLowerCase() + " booking";
+        return new BookingConflict(true, message, status, existingBooking);
+    }
+    
+    /**
+     * Find the active booking overlapping a time range, confirmed against the
+     * database. This node's index only hears about writes made on other nodes
+     * when a claim fails or the day's version is re-read, so the booking it
+     * reports may have been cancelled, rejected, expired or approved elsewhere
+     * since. If its stored status differs, the day is reloaded and checked again.
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @param startTime Start time
+     * @param endTime End time
+     * @return Overlapping interval or null if the range is free
+     */
+    private SlotIndexService.SlotInterval findConfirmedOverlap(Long venueId, LocalDate date,
+                                                               LocalTime startTime, LocalTime endTime) {
+        SlotIndexService.SlotInterval overlap = slotIndexService.findOverlap(venueId, date, startTime, endTime);
+        if (overlap == null ||
+                bookingRepository.findStatusById(overlap.getBookingId()).orElse(null) == overlap.getStatus()) {
+            return overlap;
+        }
+        slotIndexService.evict(venueId, date);
+        return slotIndexService.findOverlap(venueId, date, startTime, endTime);
+    }
+    
+    /**
+     * Periodic sweep for stale pending bookings. Deadlines normally fire from
+     * PendingExpiryService; the sweep catches bookings registered on another
+     * node that went away, or missed because of a failed expiry.
+     *
+     * Stale rows are walked in keyset order on (created_at, id) in chunks of
+     * booking.pending.sweep-chunk-size, so only one chunk of IDs is held at a
+     * time and each chunk is expired in its own short transaction.
+     */
+    @Scheduled(fixedRate = 300000) // Run every 5 minutes
+    public void expirePendingBookings() {
+        LocalDateTime expiryTime = LocalDateTime.now().minusMinutes(pendingExpiryService.getExpiryMinutes());
+        long started = System.nanoTime();
+        
+        LocalDateTime afterCreatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+        Long afterId = 0L;
+        int scanned = 0;
+        int expired = 0;
+        int chunks = 0;
+        while (true) {
+            List<Object[]> chunk = bookingRepository.findStalePendingChunk(
+                expiryTime, afterCreatedAt, afterId, PageRequest.of(0, sweepChunkSize));
+            if (chunk.isEmpty()) {
+                break;
             }
+            Object[] last = chunk.get(chunk.size() - 1);
+            afterCreatedAt = (LocalDateTime) last[1];
+            afterId = (Long) last[0];
             
-            // Check for time overlap
-            if (isTimeOverlapping(startTime, endTime, existingBooking.getStartTime(), existingBooking.getEndTime())) {
-                String message = "Time slot conflicts with existing " + existingBooking.getStatus().toString().toLowerCase() + " booking";
-                return new BookingConflict(true, message, existingBooking.getStatus().toString(), existingBooking);
+            List<Long> ids = chunk.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+            expired += expireBookings(ids, expiryTime);
+            scanned += chunk.size();
+            chunks++;
+            if (chunks % 10 == 0) {
+                logger.info("Expiry sweep progress: {} chunks, {} scanned, {} expired", chunks, scanned, expired);
+            }
+            if (chunk.size() < sweepChunkSize) {
+                break;
             }
         }
         
-        return new BookingConflict(false, null, null, null);
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        sweepRuns.incrementAndGet();
+        sweepExpiredTotal.addAndGet(expired);
+        lastSweepStats = Map.of(
+            "finished_at", LocalDateTime.now().toString(),
+            "cutoff", expiryTime.toString(),
+            "chunks", chunks,
+            "scanned", scanned,
+            "expired", expired,
+            "duration_ms", durationMillis
+        );
+        if (expired > 0) {
+            logger.info("Expired {} pending bookings in {} chunks ({} ms)", expired, chunks, durationMillis);
+        }
     }
     
     /**
-     * Auto-expire pending bookings after specified minutes
-     * @param expiryMinutes Minutes after which pending bookings expire
+     * Get pending expiry statistics
+     * @return Map containing wheel size, sweep totals and the last sweep
      */
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    public void expirePendingBookings() {
-        LocalDateTime expiryTime = LocalDateTime.now().minusMinutes(30); // 30 minutes default
+    public Map<String, Object> getExpiryStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("expiry_minutes", pendingExpiryService.getExpiryMinutes());
+        stats.put("registered_deadlines", pendingExpiryService.getRegisteredCount());
+        stats.put("sweep_chunk_size", sweepChunkSize);
+        stats.put("sweep_runs", sweepRuns.get());
+        stats.put("sweep_expired_total", sweepExpiredTotal.get());
+        stats.put("last_sweep", lastSweepStats);
+        return stats;
+    }
+    
+    /**
+     * Expire a group of pending bookings with one bulk status UPDATE. Every
+     * touched venue-day occupancy row is locked first, the still-pending rows
+     * are locked and flipped to CANCELLED, and their slot claims are released
+     * in the same transaction, together with the expiry emails' outbox rows.
+     * The index and waitlists are updated after commit.
+     * @param bookingIds Candidate booking IDs
+     * @param createdBefore Only bookings created at or before this time expire
+     * @return Number of bookings expired
+     */
+    public int expireBookings(Collection<Long> bookingIds, LocalDateTime createdBefore) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = bookingRepository.findPendingExpiryRows(bookingIds, createdBefore);
+        if (rows.isEmpty()) {
+            return 0;
+        }
         
-        List<Booking> pendingBookings = bookingRepository.findByStatusAndCreatedAtBefore(
-            Booking.BookingStatus.PENDING, expiryTime);
+        // Venue-days in (venue, date) order, the order every multi-day writer locks them in
+        TreeMap<Long, TreeSet<LocalDate>> venueDays = new TreeMap<>();
+        for (Object[] row : rows) {
+            venueDays.computeIfAbsent((Long) row[1], v -> new TreeSet<>()).add((LocalDate) row[2]);
+        }
+        venueDays.forEach((venueId, dates) -> dates.forEach(date -> venueDayOccupancyService.prepare(venueId, date)));
         
-        for (Booking booking : pendingBookings) {
-            booking.setStatus(Booking.BookingStatus.CANCELLED);
-            bookingRepository.save(booking);
+        List<Long> candidateIds = rows.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        List<VenueDayOccupancy> occupancies = new ArrayList<>();
+        Set<Long> expiredIds = transactionTemplate.execute(status -> {
+            venueDays.forEach((venueId, dates) ->
+                dates.forEach(date -> occupancies.add(venueDayOccupancyService.lock(venueId, date))));
             
-            // Send notification to user
-            if (booking.getUser() != null && booking.getUser().getEmail() != null) {
-                try {
-                    emailUtil.sendEmail(
-                        booking.getUser().getEmail(),
-                        "Booking Expired",
-                        "Your pending booking for " + booking.getVenue().getName() + 
-                        " on " + booking.getBookingDate() + " has expired due to inactivity."
-                    );
-                } catch (Exception e) {
-                    System.err.println("Failed to send expiry email: " + e.getMessage());
+            // Bookings confirmed or cancelled since they were read are left alone
+            Set<Long> lockedIds = bookingRepository.lockPendingIds(candidateIds).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toSet());
+            if (lockedIds.isEmpty()) {
+                return lockedIds;
+            }
+            bookingRepository.updatePendingStatus(lockedIds, Booking.BookingStatus.CANCELLED, LocalDateTime.now());
+            slotClaimService.release(lockedIds);
+            occupancies.forEach(venueDayOccupancyService::refresh);
+            for (Object[] row : rows) {
+                if (lockedIds.contains((Long) row[0])) {
+                    bookingNotificationService.enqueue((String) row[5], notificationTemplateService.render(
+                        NotificationTemplateService.Template.BOOKING_EXPIRED, row[6], row[2]));
                 }
             }
-        }
+            return lockedIds;
+        });
         
-        if (!pendingBookings.isEmpty()) {
-            System.out.println("Expired " + pendingBookings.size() + " pending bookings");
+        for (Object[] row : rows) {
+            Long bookingId = (Long) row[0];
+            if (!expiredIds.contains(bookingId)) {
+                continue;
+            }
+            slotIndexService.remove((Long) row[1], (LocalDate) row[2], bookingId);
+            slotEventService.publish((Long) row[1], (LocalDate) row[2], bookingId, (LocalTime) row[3],
+                (LocalTime) row[4], Booking.BookingStatus.CANCELLED);
+        }
+        if (!expiredIds.isEmpty()) {
+            venueDayVersionService.publish(occupancies);
+            pendingFeedService.publish(expiredIds);
         }
+        venueDays.forEach((venueId, dates) -> dates.forEach(date -> promoteWaitlist(venueId, date)));
+        return expiredIds.size();
     }
     
     /**
@@ -902,42 +1369,205 @@ public class BookingService {
             return availableSlots;
         }
         
-        // Define business hours (9 AM to 6 PM)
-        LocalTime businessStart = LocalTime.of(9, 0);
-        LocalTime businessEnd = LocalTime.of(18, 0);
-        int slotDuration = 60; // 1 hour slots
-        
-        List<Booking> existingBookings = bookingRepository.findByVenueAndBookingDate(venue.get(), date);
-        
-        LocalTime currentTime = businessStart;
-        while (currentTime.plusHours(1).isBefore(businessEnd) || currentTime.plusHours(1).equals(businessEnd)) {
-            LocalTime slotStart = currentTime;
-            LocalTime slotEnd = currentTime.plusHours(1);
-            
-            boolean isAvailable = true;
-            for (Booking booking : existingBookings) {
-                if ((booking.getStatus() == Booking.BookingStatus.CONFIRMED || 
-                     booking.getStatus() == Booking.BookingStatus.PENDING) &&
-                    isTimeOverlapping(slotStart, slotEnd, booking.getStartTime(), booking.getEndTime())) {
-                    isAvailable = false;
-                    break;
-                }
+        // Free one-hour slots over business hours; firstFree skips taken stretches a word at a time
+        int[] business = slotGrid.getBusinessSlots();
+        int slotsPerHour = 60 / slotGrid.getGranularityMinutes();
+        long[] occupancy = slotIndexService.getOccupancy(venueId, date);
+        int from = business[0];
+        while (from + slotsPerHour <= business[1]) {
+            int free = slotGrid.firstFree(occupancy, from, business[1]);
+            if (free < 0) {
+                break;
             }
-            
-            if (isAvailable) {
-                Map<String, Object> slot = new HashMap<>();
-                slot.put("startTime", slotStart.toString());
-                slot.put("endTime", slotEnd.toString());
-                slot.put("available", true);
-                availableSlots.add(slot);
+            // Keep the slots on the hour grid counted from opening time
+            from += (free - from) / slotsPerHour * slotsPerHour;
+            int to = from + slotsPerHour;
+            if (to <= business[1] && !slotGrid.anyOccupied(occupancy, from, to)) {
+                availableSlots.add(Map.of(
+                    "startTime", slotGrid.boundaryLabel(from),
+                    "endTime", slotGrid.boundaryLabel(to),
+                    "available", true));
             }
-            
-            currentTime = currentTime.plusHours(1);
+            from = to;
         }
         
         return availableSlots;
     }
     
+    /**
+     * Insert a new booking, claim its slots and refresh the venue-day occupancy
+     * in one transaction, then index it
+     * @param booking Booking to insert
+     * @return Saved booking
+     * @throws DataIntegrityViolationException if one of its slots is already claimed
+     */
+    private Booking insertBooking(Booking booking) {
+        return insertBooking(booking, saved -> { });
+    }
+    
+    /**
+     * Insert a new booking like insertBooking, running extra work in the same transaction
+     * @param booking Booking to insert
+     * @param inTransaction Callback receiving the saved booking before commit
+     * @return Saved booking
+     * @throws DataIntegrityViolationException if one of its slots is already claimed
+     */
+    private Booking insertBooking(Booking booking, Consumer<Booking> inTransaction) {
+        Long venueId = booking.getVenue().getId();
+        LocalDate date = booking.getBookingDate();
+        venueDayOccupancyService.prepare(venueId, date);
+        List<VenueDayOccupancy> occupancies = new ArrayList<>(1);
+        Booking savedBooking = transactionTemplate.execute(status -> {
+            VenueDayOccupancy occupancy = venueDayOccupancyService.lock(venueId, date);
+            occupancies.add(occupancy);
+            Booking saved = bookingRepository.save(booking);
+            slotClaimService.claim(saved);
+            venueDayOccupancyService.refresh(occupancy);
+            inTransaction.accept(saved);
+            return saved;
+        });
+        slotIndexService.update(savedBooking);
+        venueDayVersionService.publish(occupancies);
+        slotEventService.publish(savedBooking);
+        registerPending(savedBooking);
+        return savedBooking;
+    }
+    
+    /**
+     * Insert several bookings of one venue in a single transaction: their slot
+     * claims go out as one JDBC batch and each touched venue-day occupancy row
+     * is locked in date order and refreshed once. The index is updated after commit.
+     * @param venueId Venue ID shared by all bookings
+     * @param bookings Bookings to insert, in date order
+     * @return Saved bookings in the same order
+     * @throws DataIntegrityViolationException if one of their slots is already claimed
+     */
+    private List<Booking> insertBookings(Long venueId, List<Booking> bookings) {
+        List<LocalDate> dates = bookings.stream()
+            .map(Booking::getBookingDate).distinct().sorted().collect(Collectors.toList());
+        dates.forEach(date -> venueDayOccupancyService.prepare(venueId, date));
+        List<VenueDayOccupancy> occupancies = new ArrayList<>(dates.size());
+        List<Booking> savedBookings = transactionTemplate.execute(status -> {
+            for (LocalDate date : dates) {
+                occupancies.add(venueDayOccupancyService.lock(venueId, date));
+            }
+            List<Booking> saved = bookingRepository.saveAll(bookings);
+            slotClaimService.claimAll(saved);
+            occupancies.forEach(venueDayOccupancyService::refresh);
+            return saved;
+        });
+        savedBookings.forEach(slotIndexService::update);
+        venueDayVersionService.publish(occupancies);
+        savedBookings.forEach(slotEventService::publish);
+        savedBookings.forEach(this::registerPending);
+        return savedBookings;
+    }
+    
+    /**
+     * Register the expiry deadline of a booking that is still pending and
+     * announce it on the pending-approval feed
+     * @param booking Saved booking
+     */
+    private void registerPending(Booking booking) {
+        if (booking.getStatus() == Booking.BookingStatus.PENDING) {
+            pendingExpiryService.register(booking.getId(), booking.getCreatedAt());
+            pendingFeedService.publish(booking.getId());
+        }
+    }
+    
+    /**
+     * Persist a status change, releasing the booking's slot claims in the same
+     * transaction when it stops occupying its slot, then update the index. The
+     * venue-day occupancy is always refreshed so that its version moves with
+     * every status the availability views show. A freed slot is offered to the
+     * venue-day's waitlist.
+     * @param booking Booking with its new status
+     * @return Saved booking
+     */
+    private Booking saveStatusChange(Booking booking) {
+        return saveStatusChange(booking, saved -> { });
+    }
+    
+    /**
+     * Persist a status change like saveStatusChange, running extra work in the same transaction
+     * @param booking Booking with its new status
+     * @param inTransaction Callback receiving the saved booking before commit
+     * @return Saved booking
+     */
+    private Booking saveStatusChange(Booking booking, Consumer<Booking> inTransaction) {
+        Long venueId = booking.getVenue().getId();
+        LocalDate date = booking.getBookingDate();
+        boolean active = SlotIndexService.isActive(booking.getStatus());
+        venueDayOccupancyService.prepare(venueId, date);
+        List<VenueDayOccupancy> occupancies = new ArrayList<>(1);
+        Booking savedBooking = transactionTemplate.execute(status -> {
+            VenueDayOccupancy occupancy = venueDayOccupancyService.lock(venueId, date);
+            occupancies.add(occupancy);
+            Booking saved = bookingRepository.save(booking);
+            if (!active) {
+                slotClaimService.release(saved.getId());
+            }
+            venueDayOccupancyService.refresh(occupancy);
+            inTransaction.accept(saved);
+            return saved;
+        });
+        slotIndexService.update(savedBooking);
+        venueDayVersionService.publish(occupancies);
+        slotEventService.publish(savedBooking);
+        pendingFeedService.publish(savedBooking.getId());
+        if (!active) {
+            promoteWaitlist(venueId, date);
+        }
+        return savedBooking;
+    }
+    
+    /**
+     * Promote waiting entries of a venue-day, oldest first, whose time range is
+     * free again. Each promotion inserts a PENDING booking and marks the entry
+     * in the same transaction, along with the outbox row of the user's email.
+     * @param venueId Venue ID
+     * @param date Booking date
+     */
+    private void promoteWaitlist(Long venueId, LocalDate date) {
+        venueDayLocks.lock(venueId, date);
+        try {
+            for (WaitlistEntry entry : waitlistService.findWaiting(venueId, date)) {
+                if (!slotIndexService.isFree(venueId, date, entry.getStartTime(), entry.getEndTime())) {
+                    continue;
+                }
+                
+                Booking booking = new Booking(entry.getTitle(), entry.getVenue(), entry.getUser(), date,
+                    entry.getStartTime(), entry.getEndTime());
+                booking.setPurpose(entry.getPurpose());
+                booking.setDescription("Booking from " + entry.getStartTime() + " to " + entry.getEndTime() +
+                    " at " + entry.getVenue().getName() + " (promoted from waitlist)");
+                booking.setStatus(Booking.BookingStatus.PENDING);
+                booking.setOtpVerified(true);
+                
+                try {
+                    insertBooking(booking, saved -> {
+                        waitlistService.markPromoted(entry, saved);
+                        bookingNotificationService.enqueue(entry.getUser().getEmail(),
+                            notificationTemplateService.render(NotificationTemplateService.Template.WAITLIST_PROMOTED,
+                                entry.getVenue().getName(), date, entry.getStartTime(), entry.getEndTime(),
+                                saved.getId()));
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    // Claimed by another node in the meantime; reload the day and try the next entry
+                    slotIndexService.evict(venueId, date);
+                } catch (WaitlistService.EntryNotWaitingException e) {
+                    // The user left the waitlist after it was read; the booking was rolled back
+                } catch (RuntimeException e) {
+                    // The freeing change is already committed, so a failed promotion must not
+                    // fail it; the entry stays waiting for the next freed slot
+                    logger.warn("Could not promote waitlist entry {} for venue {} on {}", entry.getId(), venueId, date, e);
+                }
+            }
+        } finally {
+            venueDayLocks.unlock(venueId, date);
+        }
+    }
+    
     /**
      * Inner class to represent booking conflicts
      */
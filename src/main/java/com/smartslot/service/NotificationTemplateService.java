@@ -0,0 +1,245 @@
+package com.smartslot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders notification emails from pre-compiled templates.
+ *
+ * Each template is a plain text file and an optional HTML file under
+ * classpath:notifications/ with {{parameter}} placeholders. At startup every
+ * file is parsed once into a list of literal and parameter segments, where a
+ * parameter is resolved to its position in the template's parameter list, so
+ * an unknown placeholder fails the startup instead of a send. Rendering walks
+ * the segments and appends into a StringBuilder reused per thread, so bulk
+ * sends such as mass expiry only pay for the final strings. Values are
+ * HTML-escaped in the HTML variant; null values render as empty text.
+ */
+@Service
+public class NotificationTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplateService.class);
+
+    private static final String LOCATION = "notifications/";
+
+    // Builders that grew past this are dropped instead of kept for the thread
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    private final Map<Template, Compiled> compiled = new EnumMap<>(Template.class);
+
+    @PostConstruct
+    public void compileTemplates() {
+        for (Template template : Template.values()) {
+            Segment[] text = compile(template, load(template.fileName + ".txt", true));
+            String html = load(template.fileName + ".html", false);
+            compiled.put(template, new Compiled(text, html != null ? compile(template, html) : null));
+        }
+        logger.info("Compiled {} notification templates", compiled.size());
+    }
+
+    /**
+     * Render a notification
+     * @param template Template to render
+     * @param values Parameter values, in the order of the template's parameters
+     * @return Subject with the text body and, when the template has one, the HTML body
+     */
+    public Notification render(Template template, Object... values) {
+        if (values.length != template.parameters.length) {
+            throw new IllegalArgumentException("Template " + template + " takes " + template.parameters.length +
+                " values but got " + values.length);
+        }
+        Compiled segments = compiled.get(template);
+        StringBuilder buffer = BUFFER.get();
+        try {
+            String text = render(segments.text, values, false, buffer);
+            String html = segments.html != null ? render(segments.html, values, true, buffer) : null;
+            return new Notification(template.subject, text, html);
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static String render(Segment[] segments, Object[] values, boolean html, StringBuilder buffer) {
+        buffer.setLength(0);
+        for (Segment segment : segments) {
+            if (segment.literal != null) {
+                buffer.append(segment.literal);
+                continue;
+            }
+            Object value = values[segment.parameter];
+            if (value == null) {
+                continue;
+            }
+            if (html) {
+                appendEscaped(buffer, value.toString());
+            } else {
+                buffer.append(value);
+            }
+        }
+        return buffer.toString();
+    }
+
+    private static void appendEscaped(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&': buffer.append("&amp;"); break;
+                case '<': buffer.append("&lt;"); break;
+                case '>': buffer.append("&gt;"); break;
+                case '"': buffer.append("&quot;"); break;
+                case '\'': buffer.append("&#39;"); break;
+                default: buffer.append(c);
+            }
+        }
+    }
+
+    private static Segment[] compile(Template template, String source) {
+        List<String> parameters = Arrays.asList(template.parameters);
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                segments.add(Segment.literal(source.substring(position)));
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed placeholder in notification template " + template);
+            }
+            if (open > position) {
+                segments.add(Segment.literal(source.substring(position, open)));
+            }
+            String name = source.substring(open + 2, close).trim();
+            int index = parameters.indexOf(name);
+            if (index < 0) {
+                throw new IllegalStateException("Unknown placeholder {{" + name + "}} in notification template " +
+                    template + ", expected one of " + parameters);
+            }
+            segments.add(Segment.parameter(index));
+            position = close + 2;
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    private static String load(String fileName, boolean required) {
+        ClassPathResource resource = new ClassPathResource(LOCATION + fileName);
+        if (!resource.exists()) {
+            if (required) {
+                throw new IllegalStateException("Missing notification template " + LOCATION + fileName);
+            }
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            String source = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+            // The file's final line break is not part of the email
+            return source.endsWith("\n") ? source.substring(0, source.length() - 1) : source;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read notification template " + LOCATION + fileName, e);
+        }
+    }
+
+    /**
+     * Notification templates with their subject and parameters
+     */
+    public enum Template {
+        BOOKING_CONFIRMED("booking-confirmed", "🎉 Booking Confirmed - Smart Slot Booking System",
+            "name", "bookingId", "venue", "date", "startTime", "endTime", "purpose"),
+        BOOKING_REJECTED("booking-rejected", "❌ Booking Rejected - Smart Slot Booking System",
+            "name", "bookingId", "venue", "date", "startTime", "endTime", "purpose"),
+        BOOKING_OTP("booking-otp", "Booking OTP Verification - Smart Slot Booking System",
+            "name", "otp", "venue", "date", "startTime", "endTime"),
+        RECURRING_BOOKING_OTP("recurring-booking-otp", "Recurring Booking OTP Verification - Smart Slot Booking System",
+            "name", "otp", "venue", "schedule", "startTime", "endTime", "occurrences"),
+        BOOKING_OTP_RESENT("booking-otp-resent", "New Booking OTP - Smart Slot Booking System",
+            "name", "otp", "venue", "date", "startTime", "endTime"),
+        BOOKING_EXPIRED("booking-expired", "Booking Expired",
+            "venue", "date"),
+        WAITLIST_PROMOTED("waitlist-promoted", "Waitlist Update - Slot Available",
+            "venue", "date", "startTime", "endTime", "bookingId");
+
+        private final String fileName;
+        private final String subject;
+        private final String[] parameters;
+
+        Template(String fileName, String subject, String... parameters) {
+            this.fileName = fileName;
+            this.subject = subject;
+            this.parameters = parameters;
+        }
+    }
+
+    /**
+     * A rendered notification
+     */
+    public static final class Notification {
+
+        private final String subject;
+        private final String text;
+        private final String html;
+
+        private Notification(String subject, String text, String html) {
+            this.subject = subject;
+            this.text = text;
+            this.html = html;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getHtml() {
+            return html;
+        }
+    }
+
+    private static final class Compiled {
+        private final Segment[] text;
+        private final Segment[] html;
+
+        Compiled(Segment[] text, Segment[] html) {
+            this.text = text;
+            this.html = html;
+        }
+    }
+
+    private static final class Segment {
+        // Either literal text or the index of a parameter
+        private final String literal;
+        private final int parameter;
+
+        private Segment(String literal, int parameter) {
+            this.literal = literal;
+            this.parameter = parameter;
+        }
+
+        static Segment literal(String text) {
+            return new Segment(text, -1);
+        }
+
+        static Segment parameter(int index) {
+            return new Segment(null, index);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartslot.service;
+
+import com.smartslot.repository.BookingRepository;
+import com.smartslot.util.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fires pending-booking expiries on time.
+ *
+ * Every PENDING booking created on this node registers its deadline in a
+ * hierarchical timing wheel; a dedicated thread advances the wheel each tick
+ * and hands the due booking IDs, as one group, to the expiry handler
+ * installed by BookingService. Pending bookings that already exist at startup
+ * are registered once the application is ready. Bookings that were confirmed
+ * or cancelled in the meantime are simply skipped by the handler.
+ */
+@Service
+public class PendingExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingExpiryService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${booking.pending.expiry-minutes:30}")
+    private int expiryMinutes;
+
+    @Value("${booking.pending.tick-millis:1000}")
+    private long tickMillis;
+
+    private TimingWheel<Long> wheel;
+    private ScheduledExecutorService ticker;
+    private volatile Consumer<List<Long>> expiryHandler;
+
+    /**
+     * Install the handler that expires due bookings
+     * @param handler Receives the IDs of bookings whose deadline passed
+     */
+    public void setExpiryHandler(Consumer<List<Long>> handler) {
+        this.expiryHandler = handler;
+    }
+
+    public int getExpiryMinutes() {
+        return expiryMinutes;
+    }
+
+    /**
+     * Register the expiry deadline of a pending booking
+     * @param bookingId Booking ID
+     * @param createdAt Creation time of the booking
+     */
+    public void register(Long bookingId, LocalDateTime createdAt) {
+        long deadline = createdAt.plusMinutes(expiryMinutes).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (this) {
+            if (wheel == null) {
+                // Not started yet; the startup load will pick the booking up
+                return;
+            }
+            wheel.add(bookingId, deadline);
+        }
+    }
+
+    /**
+     * Number of deadlines currently registered
+     */
+    public synchronized int getRegisteredCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        synchronized (this) {
+            // 64 slots per level, four levels reach 64^4 ticks ahead
+            wheel = new TimingWheel<>(tickMillis, 64, 4, System.currentTimeMillis());
+        }
+        int loaded = 0;
+        for (Object[] row : bookingRepository.findPendingCreatedAt()) {
+            register((Long) row[0], (LocalDateTime) row[1]);
+            loaded++;
+        }
+        logger.info("Registered {} pending booking deadlines", loaded);
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private void tick() {
+        List<Long> due;
+        synchronized (this) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        Consumer<List<Long>> handler = expiryHandler;
+        if (due.isEmpty() || handler == null) {
+            return;
+        }
+        try {
+            handler.accept(due);
+        } catch (RuntimeException e) {
+            // The periodic sweep in BookingService picks these up later
+            logger.error("Failed to expire {} pending bookings", due.size(), e);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.smartslot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartslot.model.Booking;
+import com.smartslot.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes changes of the pending-approval queue to staff and admin dashboards
+ * over Server-Sent Events.
+ *
+ * BookingService reports the IDs of bookings that may have entered or left
+ * the queue. Every flush interval the dispatcher thread reads their current
+ * state with one query, turns each into an "added" (upsert) or "removed" event
+ * with the next sequence number and appends it to a bounded history. Each
+ * subscriber is then sent the history entries after the last sequence it has
+ * seen. Event IDs are "epoch-sequence", where the epoch changes on restart: a
+ * client that reconnects with a Last-Event-ID still covered by the history only
+ * receives what it missed, any other client first gets a snapshot of the queue.
+ * Sequences are local to this node, like the slot index.
+ *
+ * Changes committed on other nodes never reach publish(), so the dispatcher
+ * also polls for bookings whose updated_at moved since its last poll. The poll
+ * looks back a little further than its previous run, to catch transactions
+ * that committed late or clocks that are slightly off, and skips rows whose
+ * updated_at it has already turned into an event.
+ *
+ * Like SlotEventService, the dispatcher never writes to a connection itself.
+ * Every subscriber has a small bounded queue that a pool of writer threads
+ * drains, at most one writer per subscriber at a time, so a dashboard that
+ * stops reading only holds up its own stream. A subscriber whose queue
+ * overflows, or whose write has been blocked for longer than the send timeout,
+ * is closed; EventSource reconnects with its Last-Event-ID and resumes from the
+ * history.
+ */
+@Service
+public class PendingFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingFeedService.class);
+
+    public static final String EVENT_SNAPSHOT = "snapshot";
+    public static final String EVENT_CHANGES = "pending";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${booking.pending-feed.flush-ms:250}")
+    private long flushMs;
+
+    @Value("${booking.pending-feed.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    @Value("${booking.pending-feed.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${booking.pending-feed.history-size:1000}")
+    private int historySize;
+
+    @Value("${booking.pending-feed.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${booking.pending-feed.poll-ms:2000}")
+    private long pollMs;
+
+    @Value("${booking.pending-feed.poll-lookback-ms:10000}")
+    private long pollLookbackMs;
+
+    @Value("${booking.pending-feed.writers:2}")
+    private int writers;
+
+    @Value("${booking.pending-feed.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${booking.pending-feed.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final Set<Long> changedIds = ConcurrentHashMap.newKeySet();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Newest last; guarded by this
+    private final ArrayDeque<FeedEvent> history = new ArrayDeque<>();
+    private long sequence;
+
+    // Start of the next poll window and the updated_at of rows already turned into events; dispatcher only
+    private LocalDateTime polledUntil = LocalDateTime.now();
+    private final Map<Long, LocalDateTime> seenUpdates = new HashMap<>();
+
+    private TransactionTemplate readOnly;
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService writerPool;
+
+    @PostConstruct
+    public void start() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        // Each subscriber has at most one drain task queued, so the task queue is bounded by the subscriber limit
+        writerPool = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "pending-feed-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long stallCheckMs = Math.max(100, sendTimeoutMs / 4);
+        dispatcher.scheduleWithFixedDelay(this::closeStalled, stallCheckMs, stallCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        writerPool.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Report bookings whose pending state may have changed. Cheap and non-blocking;
+     * their current state is read on the next flush.
+     * @param bookingIds Booking IDs
+     */
+    public void publish(Collection<Long> bookingIds) {
+        changedIds.addAll(bookingIds);
+    }
+
+    /**
+     * Report a booking whose pending state may have changed
+     * @param bookingId Booking ID
+     */
+    public void publish(Long bookingId) {
+        if (bookingId != null) {
+            changedIds.add(bookingId);
+        }
+    }
+
+    /**
+     * Open the feed, resuming after a previously received event ID when the history still covers it
+     * @param lastEventId Last-Event-ID sent by the client, may be null
+     * @return Emitter to return from the controller, or null when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+
+        Long resumeFrom = resumableSequence(lastEventId);
+        if (resumeFrom != null) {
+            // The dispatcher sends the missed events on its next flush
+            subscriber.lastSent = resumeFrom;
+            enqueue(subscriber, SseEmitter.event().comment("resumed"));
+        } else {
+            long current = currentSequence();
+            // Taken after reading the sequence, so later events can only repeat what it already shows
+            String snapshot = readOnly.execute(status -> {
+                List<Map<String, Object>> bookings = new ArrayList<>();
+                for (Booking booking : bookingRepository.findPendingBookingsOrderByCreatedAt()) {
+                    bookings.add(summary(booking));
+                }
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("seq", current);
+                body.put("bookings", bookings);
+                return toJson(body);
+            });
+            subscriber.lastSent = current;
+            enqueue(subscriber, SseEmitter.event().id(eventId(current)).name(EVENT_SNAPSHOT)
+                .data(snapshot, MediaType.APPLICATION_JSON));
+        }
+        subscriber.ready = true;
+        return emitter;
+    }
+
+    private Long resumableSequence(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int separator = lastEventId.indexOf('-');
+        try {
+            if (separator < 0 || Long.parseLong(lastEventId.substring(0, separator)) != epoch) {
+                return null;
+            }
+            long seq = Long.parseLong(lastEventId.substring(separator + 1));
+            synchronized (this) {
+                long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().seq;
+                return seq >= oldest - 1 && seq <= sequence ? seq : null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private synchronized long currentSequence() {
+        return sequence;
+    }
+
+    private synchronized List<FeedEvent> eventsAfter(long seq) {
+        List<FeedEvent> events = new ArrayList<>();
+        for (FeedEvent event : history) {
+            if (event.seq > seq) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private synchronized void append(List<String> payloads) {
+        for (String payload : payloads) {
+            history.addLast(new FeedEvent(++sequence, payload));
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void flush() {
+        try {
+            if (!changedIds.isEmpty()) {
+                List<Long> ids = new ArrayList<>(changedIds);
+                changedIds.removeAll(ids);
+                append(readChanges(ids));
+            }
+            deliver();
+        } catch (RuntimeException e) {
+            logger.error("Failed to dispatch pending feed events", e);
+        }
+    }
+
+    /**
+     * Pick up bookings changed by any node, including this one, since the last poll
+     */
+    private void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime from = polledUntil.minus(pollLookbackMs, ChronoUnit.MILLIS);
+            List<Object[]> rows = readOnly.execute(status -> bookingRepository.findUpdatedSince(from));
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                LocalDateTime updatedAt = (LocalDateTime) row[1];
+                if (!updatedAt.equals(seenUpdates.get(id))) {
+                    changedIds.add(id);
+                }
+            }
+            seenUpdates.values().removeIf(updatedAt -> updatedAt.isBefore(from));
+            polledUntil = now;
+        } catch (RuntimeException e) {
+            logger.error("Failed to poll for pending feed changes", e);
+        }
+    }
+
+    private List<String> readChanges(List<Long> ids) {
+        return readOnly.execute(status -> {
+            Map<Long, Booking> byId = new HashMap<>();
+            for (Booking booking : bookingRepository.findByIdIn(ids)) {
+                byId.put(booking.getId(), booking);
+                if (booking.getUpdatedAt() != null) {
+                    // The poll skips this version of the row
+                    seenUpdates.put(booking.getId(), booking.getUpdatedAt());
+                }
+            }
+            List<String> payloads = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Booking booking = byId.get(id);
+                Map<String, Object> event = new LinkedHashMap<>();
+                if (booking != null && booking.getStatus() == Booking.BookingStatus.PENDING) {
+                    event.put("type", "added");
+                    event.put("booking", summary(booking));
+                } else {
+                    event.put("type", "removed");
+                    event.put("bookingId", id);
+                }
+                payloads.add(toJson(event));
+            }
+            return payloads;
+        });
+    }
+
+    private void deliver() {
+        long current = currentSequence();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.ready || subscriber.lastSent >= current) {
+                continue;
+            }
+            List<FeedEvent> events = eventsAfter(subscriber.lastSent);
+            if (events.isEmpty() || events.get(0).seq != subscriber.lastSent + 1) {
+                // Fell behind the history; the client reconnects and starts from a snapshot
+                close(subscriber, "fell behind the history");
+                continue;
+            }
+            StringBuilder data = new StringBuilder("{\"events\":[");
+            for (int i = 0; i < events.size(); i++) {
+                FeedEvent event = events.get(i);
+                if (i > 0) {
+                    data.append(',');
+                }
+                data.append("{\"seq\":").append(event.seq).append(',').append(event.payload, 1, event.payload.length());
+            }
+            data.append("]}");
+            long last = events.get(events.size() - 1).seq;
+            if (enqueue(subscriber, SseEmitter.event().id(eventId(last)).name(EVENT_CHANGES)
+                    .data(data.toString(), MediaType.APPLICATION_JSON))) {
+                subscriber.lastSent = last;
+            }
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            subscribers.forEach(subscriber -> enqueue(subscriber, SseEmitter.event().comment("keep-alive")));
+        } catch (RuntimeException e) {
+            logger.error("Failed to send pending feed heartbeats", e);
+        }
+    }
+
+    private void closeStalled() {
+        try {
+            long now = System.currentTimeMillis();
+            subscribers.forEach(subscriber -> {
+                long since = subscriber.sendingSince;
+                if (since != 0 && now - since > sendTimeoutMs) {
+                    close(subscriber, "write blocked for " + (now - since) + " ms");
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to check pending feed subscribers", e);
+        }
+    }
+
+    /**
+     * Queue an event for a subscriber and make sure a writer drains its queue
+     * @return Whether the event was queued
+     */
+    private boolean enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return false;
+        }
+        if (!subscriber.queue.offer(event)) {
+            close(subscriber, "event queue full");
+            return false;
+        }
+        scheduleDrain(subscriber);
+        return true;
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writerPool.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendingSince = System.currentTimeMillis();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the stream already completed
+                    unsubscribe(subscriber);
+                } finally {
+                    subscriber.sendingSince = 0;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event queued after the last poll but before draining was cleared
+        if (!subscriber.closed.get() && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber, String reason) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        unsubscribe(subscriber);
+        subscriber.queue.clear();
+        logger.debug("Closing pending feed stream: {}", reason);
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException e) {
+            // Already completed
+        }
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    private static Map<String, Object> summary(Booking booking) {
+        Map<String, Object> venue = new LinkedHashMap<>();
+        venue.put("id", booking.getVenue().getId());
+        venue.put("name", booking.getVenue().getName());
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("email", booking.getUser().getEmail());
+        user.put("name", booking.getUser().getName());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", booking.getId());
+        summary.put("title", booking.getTitle());
+        summary.put("status", booking.getStatus().toString());
+        summary.put("bookingDate", booking.getBookingDate().toString());
+        summary.put("startTime", booking.getStartTime().toString());
+        summary.put("endTime", booking.getEndTime().toString());
+        summary.put("purpose", booking.getPurpose());
+        summary.put("otpVerified", booking.getOtpVerified());
+        summary.put("createdAt", booking.getCreatedAt() != null ? booking.getCreatedAt().toString() : null);
+        summary.put("venue", venue);
+        summary.put("user", user);
+        return summary;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize pending feed event", e);
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        // Set while a writer task is queued or running for this subscriber
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Start of the write in progress, 0 when idle
+        private volatile long sendingSince;
+        // Last sequence queued; written by the subscribing thread before ready is set, then only by the dispatcher
+        private volatile long lastSent;
+        private volatile boolean ready;
+
+        Subscriber(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private static class FeedEvent {
+        private final long seq;
+        // JSON object without its sequence number
+        private final String payload;
+
+        FeedEvent(long seq, String payload) {
+            this.seq = seq;
+            this.payload = payload;
+        }
+    }
+}
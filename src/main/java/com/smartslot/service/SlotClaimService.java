@@ -0,0 +1,133 @@
+package com.smartslot.service;
+
+import com.smartslot.model.Booking;
+import com.smartslot.model.SlotClaim;
+import com.smartslot.repository.BookingRepository;
+import com.smartslot.repository.SlotClaimRepository;
+import com.smartslot.util.SlotGrid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Database-enforced slot claims.
+ *
+ * claim and release join the caller's transaction so that a booking row and
+ * its claims are always committed together. A slot already claimed by another
+ * booking, on this node or any other, surfaces as a
+ * DataIntegrityViolationException from claim.
+ */
+@Service
+public class SlotClaimService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotClaimService.class);
+
+    @Autowired
+    private SlotClaimRepository slotClaimRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SlotGrid slotGrid;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Claim every grid slot touched by a booking
+     * @param booking Saved booking
+     * @throws DataIntegrityViolationException if one of the slots is already claimed
+     */
+    public void claim(Booking booking) {
+        claim(booking.getId(), booking.getVenue().getId(), booking.getBookingDate(),
+            booking.getStartTime(), booking.getEndTime());
+    }
+
+    /**
+     * Claim the slots of several bookings with one JDBC batch. Used for
+     * recurring series, where the claim rows far outnumber the bookings.
+     * @param bookings Saved bookings
+     * @throws DataIntegrityViolationException if one of the slots is already claimed
+     */
+    public void claimAll(List<Booking> bookings) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Booking booking : bookings) {
+            int from = slotGrid.slotFloor(SlotGrid.minuteOf(booking.getStartTime()));
+            int to = slotGrid.slotCeil(SlotGrid.minuteOf(booking.getEndTime()));
+            for (int slot = from; slot < to; slot++) {
+                rows.add(new Object[] {booking.getVenue().getId(), Date.valueOf(booking.getBookingDate()),
+                    slot, booking.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO slot_claims (venue_id, booking_date, slot_index, booking_id) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Release all slots held by a booking
+     * @param bookingId Booking ID
+     */
+    public void release(Long bookingId) {
+        slotClaimRepository.deleteByBookingId(bookingId);
+    }
+
+    /**
+     * Release all slots held by several bookings with one statement
+     * @param bookingIds Booking IDs
+     */
+    public void release(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            slotClaimRepository.deleteByBookingIdIn(bookingIds);
+        }
+    }
+
+    /**
+     * Create claims for active bookings from today on that predate the claim
+     * table. Bookings that overlap an already claimed slot are logged and left
+     * unclaimed for an administrator to resolve.
+     * @return Number of bookings claimed
+     */
+    public int backfillFromToday() {
+        int claimed = 0;
+        for (Object[] row : bookingRepository.findUnclaimedActiveSlotRows(LocalDate.now())) {
+            Long bookingId = (Long) row[0];
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    claim(bookingId, (Long) row[1], (LocalDate) row[2], (LocalTime) row[3], (LocalTime) row[4]));
+                claimed++;
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Booking {} overlaps an already claimed slot and was left unclaimed", bookingId);
+            }
+        }
+        if (claimed > 0) {
+            logger.info("Backfilled slot claims for {} bookings", claimed);
+        }
+        return claimed;
+    }
+
+    private void claim(Long bookingId, Long venueId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        int from = slotGrid.slotFloor(SlotGrid.minuteOf(startTime));
+        int to = slotGrid.slotCeil(SlotGrid.minuteOf(endTime));
+        List<SlotClaim> claims = new ArrayList<>(to - from);
+        for (int slot = from; slot < to; slot++) {
+            claims.add(new SlotClaim(venueId, date, slot, bookingId));
+        }
+        slotClaimRepository.saveAll(claims);
+        slotClaimRepository.flush();
+    }
+}
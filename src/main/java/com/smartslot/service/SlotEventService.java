@@ -0,0 +1,384 @@
+package com.smartslot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartslot.model.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes live slot changes to browsers over Server-Sent Events.
+ *
+ * Subscribers register for one venue and a date range. The registry is a
+ * concurrent map of venue to a concurrent set, so subscribing, leaving and
+ * publishing never take a lock, and a booking write only records its change.
+ * Changes are coalesced per booking, keeping the latest state, and a single
+ * dispatcher thread flushes them every coalesce interval: each venue's batch
+ * is serialized once per distinct set of visible changes, so a burst reaches
+ * thousands of idle subscribers as one small event each. The same thread sends
+ * a comment line periodically so that proxies keep idle streams open and
+ * closed ones are noticed.
+ *
+ * The dispatcher never writes to a connection itself. Every subscriber has a
+ * small bounded queue that a pool of writer threads drains, at most one
+ * writer per subscriber at a time, so a client that stops reading only holds
+ * up its own stream. A subscriber whose queue overflows, or whose write has
+ * been blocked for longer than the send timeout, is closed; EventSource
+ * reconnects on its own and the page refetches what it missed.
+ */
+@Service
+public class SlotEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotEventService.class);
+
+    public static final String EVENT_SLOTS = "slots";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${booking.events.coalesce-ms:250}")
+    private long coalesceMs;
+
+    @Value("${booking.events.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    @Value("${booking.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${booking.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${booking.events.max-range-days:31}")
+    private int maxRangeDays;
+
+    @Value("${booking.events.writers:4}")
+    private int writers;
+
+    @Value("${booking.events.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${booking.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Latest unsent change of each booking
+    private final ConcurrentHashMap<Long, SlotChange> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService writerPool;
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slot-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        // Each subscriber has at most one drain task queued, so the task queue is bounded by the subscriber limit
+        writerPool = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "slot-events-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::flush, coalesceMs, coalesceMs, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long stallCheckMs = Math.max(100, sendTimeoutMs / 4);
+        dispatcher.scheduleWithFixedDelay(this::closeStalled, stallCheckMs, stallCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        writerPool.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    public int getMaxRangeDays() {
+        return maxRangeDays;
+    }
+
+    /**
+     * Number of open streams
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Open a stream of slot changes for a venue over a date range
+     * @param venueId Venue ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Emitter to return from the controller, or null when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Long venueId, LocalDate startDate, LocalDate endDate) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(venueId, startDate, endDate, emitter, queueCapacity);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.computeIfAbsent(venueId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        // Flush the response headers right away so the client sees the stream open
+        enqueue(subscriber, SseEmitter.event().comment("subscribed"));
+        return emitter;
+    }
+
+    /**
+     * Publish the current state of a booking's slot
+     * @param booking Booking whose status was committed
+     */
+    public void publish(Booking booking) {
+        if (booking == null || booking.getId() == null || booking.getVenue() == null) {
+            return;
+        }
+        publish(booking.getVenue().getId(), booking.getBookingDate(), booking.getId(),
+            booking.getStartTime(), booking.getEndTime(), booking.getStatus());
+    }
+
+    /**
+     * Publish the current state of a booking's slot
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @param bookingId Booking ID
+     * @param startTime Start time
+     * @param endTime End time
+     * @param status Committed status; cancelled and rejected bookings free their slot
+     */
+    public void publish(Long venueId, LocalDate date, Long bookingId, LocalTime startTime, LocalTime endTime,
+                        Booking.BookingStatus status) {
+        Set<Subscriber> venueSubscribers = subscribers.get(venueId);
+        if (venueSubscribers == null || venueSubscribers.isEmpty()) {
+            return;
+        }
+        pending.put(bookingId, new SlotChange(venueId, date, bookingId, startTime, endTime, status));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        Set<Subscriber> venueSubscribers = subscribers.get(subscriber.venueId);
+        if (venueSubscribers != null && venueSubscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void flush() {
+        try {
+            Map<Long, List<SlotChange>> byVenue = new HashMap<>();
+            for (Map.Entry<Long, SlotChange> entry : pending.entrySet()) {
+                // A change published meanwhile replaces the value and stays for the next flush
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    byVenue.computeIfAbsent(entry.getValue().venueId, id -> new ArrayList<>()).add(entry.getValue());
+                }
+            }
+            byVenue.forEach(this::dispatch);
+        } catch (RuntimeException e) {
+            logger.error("Failed to dispatch slot events", e);
+        }
+    }
+
+    private void dispatch(Long venueId, List<SlotChange> changes) {
+        Set<Subscriber> venueSubscribers = subscribers.get(venueId);
+        if (venueSubscribers == null || venueSubscribers.isEmpty()) {
+            return;
+        }
+        changes.sort(Comparator.comparing((SlotChange change) -> change.date).thenComparing(change -> change.startTime));
+        Map<List<SlotChange>, String> serialized = new HashMap<>();
+        for (Subscriber subscriber : venueSubscribers) {
+            List<SlotChange> visible = new ArrayList<>(changes.size());
+            for (SlotChange change : changes) {
+                if (!change.date.isBefore(subscriber.startDate) && !change.date.isAfter(subscriber.endDate)) {
+                    visible.add(change);
+                }
+            }
+            if (visible.isEmpty()) {
+                continue;
+            }
+            String data = serialized.computeIfAbsent(visible, batch -> toJson(venueId, batch));
+            enqueue(subscriber, SseEmitter.event().name(EVENT_SLOTS).data(data, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            subscribers.values().forEach(set -> set.forEach(subscriber ->
+                enqueue(subscriber, SseEmitter.event().comment("keep-alive"))));
+        } catch (RuntimeException e) {
+            logger.error("Failed to send slot event heartbeats", e);
+        }
+    }
+
+    private void closeStalled() {
+        try {
+            long now = System.currentTimeMillis();
+            subscribers.values().forEach(set -> set.forEach(subscriber -> {
+                long since = subscriber.sendingSince;
+                if (since != 0 && now - since > sendTimeoutMs) {
+                    close(subscriber, "write blocked for " + (now - since) + " ms");
+                }
+            }));
+        } catch (RuntimeException e) {
+            logger.error("Failed to check slot event subscribers", e);
+        }
+    }
+
+    /**
+     * Queue an event for a subscriber and make sure a writer drains its queue
+     */
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            close(subscriber, "event queue full");
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writerPool.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendingSince = System.currentTimeMillis();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the stream already completed
+                    subscriber.closed.set(true);
+                    unsubscribe(subscriber);
+                } finally {
+                    subscriber.sendingSince = 0;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event queued after the last poll but before draining was cleared
+        if (!subscriber.closed.get() && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber, String reason) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        unsubscribe(subscriber);
+        subscriber.queue.clear();
+        logger.debug("Closing slot event stream of venue {}: {}", subscriber.venueId, reason);
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException e) {
+            // Already completed
+        }
+    }
+
+    private String toJson(Long venueId, List<SlotChange> changes) {
+        List<Map<String, Object>> items = new ArrayList<>(changes.size());
+        for (SlotChange change : changes) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("type", SlotIndexService.isActive(change.status) ? "occupied" : "freed");
+            item.put("bookingId", change.bookingId);
+            item.put("date", change.date.toString());
+            item.put("startTime", change.startTime.toString());
+            item.put("endTime", change.endTime.toString());
+            item.put("status", change.status.toString());
+            items.add(item);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("venueId", venueId);
+        body.put("changes", items);
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize slot events", e);
+        }
+    }
+
+    private static class Subscriber {
+        private final Long venueId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        // Set while a writer task is queued or running for this subscriber
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Start of the write in progress, 0 when idle
+        private volatile long sendingSince;
+
+        Subscriber(Long venueId, LocalDate startDate, LocalDate endDate, SseEmitter emitter, int queueCapacity) {
+            this.venueId = venueId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private static class SlotChange {
+        private final Long venueId;
+        private final LocalDate date;
+        private final Long bookingId;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final Booking.BookingStatus status;
+
+        SlotChange(Long venueId, LocalDate date, Long bookingId, LocalTime startTime, LocalTime endTime,
+                   Booking.BookingStatus status) {
+            this.venueId = venueId;
+            this.date = date;
+            this.bookingId = bookingId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.smartslot.service;
+
+import com.smartslot.model.Booking;
+import com.smartslot.repository.BookingRepository;
+import com.smartslot.util.SlotGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Warm in-memory interval index of active bookings keyed by (venueId, date).
+ *
+ * Each venue-day is loaded from the database once, on first read, and is then
+ * kept in sync write-through by BookingService on every status transition.
+ * Reads never lock: writers publish a new immutable snapshot per venue-day,
+ * holding both the ordered intervals and an occupancy bitmap on the SlotGrid.
+ */
+@Service
+public class SlotIndexService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private SlotGrid slotGrid;
+
+    private final ConcurrentHashMap<VenueDayKey, VenueDaySlots> index = new ConcurrentHashMap<>();
+
+    /**
+     * Find the first active booking overlapping the given time range
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @param startTime Start time
+     * @param endTime End time
+     * @return Overlapping interval or null if the range is free
+     */
+    public SlotInterval findOverlap(Long venueId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return snapshot(venueId, date).findOverlap(SlotGrid.minuteOf(startTime), SlotGrid.minuteOf(endTime));
+    }
+
+    /**
+     * Check if a time range is free for a venue on a date. Ranges aligned to the
+     * slot grid are answered from the occupancy bitmap, which is exact for them;
+     * other ranges fall back to the interval scan.
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @param startTime Start time
+     * @param endTime End time
+     * @return boolean true if no active booking overlaps
+     */
+    public boolean isFree(Long venueId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        Snapshot snapshot = snapshot(venueId, date);
+        int startMinute = SlotGrid.minuteOf(startTime);
+        int endMinute = SlotGrid.minuteOf(endTime);
+        if (slotGrid.isAligned(startMinute) && slotGrid.isAligned(endMinute)) {
+            return !slotGrid.anyOccupied(snapshot.occupancy, slotGrid.slotFloor(startMinute), slotGrid.slotFloor(endMinute));
+        }
+        return snapshot.findOverlap(startMinute, endMinute) == null;
+    }
+    
+    /**
+     * Check if every slot within business hours is occupied
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @return boolean true if no free slot is left
+     */
+    public boolean isFullyBooked(Long venueId, LocalDate date) {
+        int[] business = slotGrid.getBusinessSlots();
+        return slotGrid.allOccupied(snapshot(venueId, date).occupancy, business[0], business[1]);
+    }
+    
+    /**
+     * Get the occupancy bitmap of a venue-day. The array is shared and must not be modified.
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @return Bitmap with one bit per slot of the SlotGrid
+     */
+    public long[] getOccupancy(Long venueId, LocalDate date) {
+        return snapshot(venueId, date).occupancy;
+    }
+    
+    /**
+     * Load every venue-day of a date range that is not indexed yet with a single query
+     * @param venueId Venue ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     */
+    public void preload(Long venueId, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, VenueDaySlots> missing = new HashMap<>();
+        Map<LocalDate, Long> mutationsBeforeLoad = new HashMap<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            VenueDaySlots slots = index.computeIfAbsent(new VenueDayKey(venueId, date), k -> new VenueDaySlots());
+            if (slots.snapshot == null) {
+                missing.put(date, slots);
+                mutationsBeforeLoad.put(date, slots.mutations);
+                first = first == null ? date : first;
+                last = date;
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        
+        Map<LocalDate, List<SlotInterval>> byDate = new HashMap<>();
+        for (Object[] row : bookingRepository.findActiveSlotRows(venueId, first, last)) {
+            byDate.computeIfAbsent((LocalDate) row[2], d -> new ArrayList<>()).add(toInterval(row));
+        }
+        for (Map.Entry<LocalDate, VenueDaySlots> entry : missing.entrySet()) {
+            List<SlotInterval> intervals = byDate.getOrDefault(entry.getKey(), new ArrayList<>());
+            entry.getValue().install(Snapshot.of(intervals, slotGrid), mutationsBeforeLoad.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Load the same date for several venues with a single query, skipping venue-days already indexed
+     * @param venueIds Venue IDs
+     * @param date Booking date
+     */
+    public void preload(Collection<Long> venueIds, LocalDate date) {
+        preload(venueIds, date, date);
+    }
+
+    /**
+     * Load a date range for several venues with a single query, skipping venue-days already indexed
+     * @param venueIds Venue IDs
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     */
+    public void preload(Collection<Long> venueIds, LocalDate startDate, LocalDate endDate) {
+        Map<VenueDayKey, VenueDaySlots> missing = new HashMap<>();
+        Map<VenueDayKey, Long> mutationsBeforeLoad = new HashMap<>();
+        Set<Long> missingVenues = new HashSet<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (Long venueId : venueIds) {
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                VenueDayKey key = new VenueDayKey(venueId, date);
+                VenueDaySlots slots = index.computeIfAbsent(key, k -> new VenueDaySlots());
+                if (slots.snapshot == null) {
+                    missing.put(key, slots);
+                    mutationsBeforeLoad.put(key, slots.mutations);
+                    missingVenues.add(venueId);
+                    first = first == null || date.isBefore(first) ? date : first;
+                    last = last == null || date.isAfter(last) ? date : last;
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        
+        Map<VenueDayKey, List<SlotInterval>> byVenueDay = new HashMap<>();
+        for (Object[] row : bookingRepository.findActiveSlotRowsForVenues(missingVenues, first, last)) {
+            VenueDayKey key = new VenueDayKey((Long) row[1], (LocalDate) row[2]);
+            byVenueDay.computeIfAbsent(key, k -> new ArrayList<>()).add(toInterval(row));
+        }
+        for (Map.Entry<VenueDayKey, VenueDaySlots> entry : missing.entrySet()) {
+            List<SlotInterval> intervals = byVenueDay.getOrDefault(entry.getKey(), new ArrayList<>());
+            entry.getValue().install(Snapshot.of(intervals, slotGrid), mutationsBeforeLoad.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Get active booking intervals for a venue-day, ordered by start time
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @return List of intervals
+     */
+    public List<SlotInterval> getIntervals(Long venueId, LocalDate date) {
+        return Arrays.asList(snapshot(venueId, date).intervals);
+    }
+
+    /**
+     * Record a booking's current status in the index. Active bookings are
+     * (re)inserted, cancelled and rejected bookings are removed.
+     * @param booking Booking whose status changed
+     */
+    public void update(Booking booking) {
+        if (booking == null || booking.getId() == null || booking.getVenue() == null) {
+            return;
+        }
+        VenueDayKey key = new VenueDayKey(booking.getVenue().getId(), booking.getBookingDate());
+        VenueDaySlots slots = index.computeIfAbsent(key, k -> new VenueDaySlots());
+        if (isActive(booking.getStatus())) {
+            slots.put(new SlotInterval(booking.getId(), SlotGrid.minuteOf(booking.getStartTime()),
+                SlotGrid.minuteOf(booking.getEndTime()), booking.getStatus()), slotGrid);
+        } else {
+            slots.remove(booking.getId(), slotGrid);
+        }
+    }
+
+    /**
+     * Remove a booking that stopped occupying its slot
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @param bookingId Booking ID
+     */
+    public void remove(Long venueId, LocalDate date, Long bookingId) {
+        index.computeIfAbsent(new VenueDayKey(venueId, date), k -> new VenueDaySlots()).remove(bookingId, slotGrid);
+    }
+
+    /**
+     * Drop a venue-day so that it is reloaded from the database on next read
+     * @param venueId Venue ID
+     * @param date Booking date
+     */
+    public void evict(Long venueId, LocalDate date) {
+        index.remove(new VenueDayKey(venueId, date));
+    }
+
+    /**
+     * Drop venue-days in the past, they are no longer queried for availability
+     */
+    @Scheduled(cron = "0 15 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        index.keySet().removeIf(key -> key.date.isBefore(today));
+    }
+
+    /**
+     * Check if a status occupies its time slot
+     * @param status Booking status
+     * @return boolean true for statuses that block the slot
+     */
+    public static boolean isActive(Booking.BookingStatus status) {
+        return status != Booking.BookingStatus.CANCELLED && status != Booking.BookingStatus.REJECTED;
+    }
+
+    private Snapshot snapshot(Long venueId, LocalDate date) {
+        VenueDaySlots slots = index.computeIfAbsent(new VenueDayKey(venueId, date), k -> new VenueDaySlots());
+        Snapshot current = slots.snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        // Query outside any lock; only install the result if no write raced with the load
+        long mutationsBeforeLoad = slots.mutations;
+        List<Object[]> rows = bookingRepository.findActiveSlotRows(venueId, date, date);
+        List<SlotInterval> intervals = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            intervals.add(toInterval(row));
+        }
+        Snapshot loaded = Snapshot.of(intervals, slotGrid);
+        return slots.install(loaded, mutationsBeforeLoad);
+    }
+    
+    private static SlotInterval toInterval(Object[] row) {
+        return new SlotInterval((Long) row[0], SlotGrid.minuteOf((LocalTime) row[3]),
+            SlotGrid.minuteOf((LocalTime) row[4]), (Booking.BookingStatus) row[5]);
+    }
+
+    /**
+     * Mutable holder for one venue-day. Writers are serialized on the holder,
+     * readers only see the volatile snapshot.
+     */
+    private static class VenueDaySlots {
+        private volatile Snapshot snapshot;
+        private volatile long mutations;
+
+        synchronized Snapshot install(Snapshot loaded, long expectedMutations) {
+            if (snapshot == null && mutations == expectedMutations) {
+                snapshot = loaded;
+            }
+            return snapshot != null ? snapshot : loaded;
+        }
+
+        synchronized void put(SlotInterval interval, SlotGrid grid) {
+            mutations++;
+            if (snapshot != null) {
+                snapshot = snapshot.with(interval, grid);
+            }
+        }
+
+        synchronized void remove(Long bookingId, SlotGrid grid) {
+            mutations++;
+            if (snapshot != null) {
+                snapshot = snapshot.without(bookingId, grid);
+            }
+        }
+    }
+
+    /**
+     * Immutable, start-ordered intervals of one venue-day and their occupancy
+     * bitmap. The bitmap is rebuilt from the intervals on every change so that
+     * freeing one booking never clears slots still held by another.
+     */
+    private static class Snapshot {
+        private final SlotInterval[] intervals;
+        private final long[] occupancy;
+
+        private Snapshot(SlotInterval[] intervals, long[] occupancy) {
+            this.intervals = intervals;
+            this.occupancy = occupancy;
+        }
+
+        static Snapshot of(List<SlotInterval> intervals, SlotGrid grid) {
+            SlotInterval[] sorted = intervals.toArray(new SlotInterval[0]);
+            Arrays.sort(sorted, (a, b) -> Integer.compare(a.startMinute, b.startMinute));
+            long[] occupancy = grid.newBitmap();
+            for (SlotInterval interval : sorted) {
+                grid.occupy(occupancy, interval.startMinute, interval.endMinute);
+            }
+            return new Snapshot(sorted, occupancy);
+        }
+
+        SlotInterval findOverlap(int startMinute, int endMinute) {
+            for (SlotInterval interval : intervals) {
+                if (interval.startMinute >= endMinute) {
+                    break; // ordered by start, nothing later can overlap
+                }
+                if (interval.endMinute > startMinute) {
+                    return interval;
+                }
+            }
+            return null;
+        }
+
+        Snapshot with(SlotInterval interval, SlotGrid grid) {
+            List<SlotInterval> next = new ArrayList<>(intervals.length + 1);
+            for (SlotInterval existing : intervals) {
+                if (!existing.bookingId.equals(interval.bookingId)) {
+                    next.add(existing);
+                }
+            }
+            next.add(interval);
+            return of(next, grid);
+        }
+
+        Snapshot without(Long bookingId, SlotGrid grid) {
+            List<SlotInterval> next = new ArrayList<>(intervals.length);
+            for (SlotInterval interval : intervals) {
+                if (!interval.bookingId.equals(bookingId)) {
+                    next.add(interval);
+                }
+            }
+            return next.size() == intervals.length ? this : of(next, grid);
+        }
+    }
+
+    /**
+     * Active booking occupying [startMinute, endMinute) of a day
+     */
+    public static class SlotInterval {
+        private final Long bookingId;
+        private final int startMinute;
+        private final int endMinute;
+        private final Booking.BookingStatus status;
+
+        public SlotInterval(Long bookingId, int startMinute, int endMinute, Booking.BookingStatus status) {
+            this.bookingId = bookingId;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.status = status;
+        }
+
+        public Long getBookingId() { return bookingId; }
+        public int getStartMinute() { return startMinute; }
+        public int getEndMinute() { return endMinute; }
+        public Booking.BookingStatus getStatus() { return status; }
+        public LocalTime getStartTime() { return LocalTime.of(startMinute / 60, startMinute % 60); }
+        public LocalTime getEndTime() { return LocalTime.of(endMinute / 60, endMinute % 60); }
+    }
+
+    private static class VenueDayKey {
+        private final Long venueId;
+        private final LocalDate date;
+
+        VenueDayKey(Long venueId, LocalDate date) {
+            this.venueId = venueId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof VenueDayKey)) return false;
+            VenueDayKey other = (VenueDayKey) o;
+            return venueId.equals(other.venueId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(venueId, date);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.smartslot.service;
+
+import com.smartslot.model.Venue;
+import com.smartslot.util.SlotGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Computes ranked alternate slots for a conflicting booking request.
+ *
+ * The whole search window is loaded into the slot index with a single range
+ * query (or served from it when warm), then every candidate is evaluated in
+ * one pass against the in-memory occupancy, so the cost does not grow with
+ * the search horizon. Cross-venue suggestions work the same way: one query
+ * covers the requested date at every candidate venue.
+ */
+@Service
+public class SlotSuggestionService {
+
+    @Autowired
+    private SlotIndexService slotIndexService;
+
+    @Autowired
+    private SlotGrid slotGrid;
+
+    @Value("${booking.suggestions.horizon-days:7}")
+    private int defaultHorizonDays;
+
+    @Value("${booking.suggestions.max-horizon-days:60}")
+    private int maxHorizonDays;
+
+    @Value("${booking.suggestions.limit:20}")
+    private int defaultLimit;
+
+    /**
+     * Suggest free slots close to the requested one at the same venue
+     * @param venueId Venue ID
+     * @param date Requested date
+     * @param startTime Requested start time
+     * @param endTime Requested end time
+     * @param horizonDays Days ahead to search, null for the configured default
+     * @param limit Maximum suggestions, null for the configured default
+     * @return Suggestions ordered by rank, closest to the request first
+     */
+    public List<Map<String, Object>> suggest(Long venueId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                             Integer horizonDays, Integer limit) {
+        int horizon = resolveHorizon(horizonDays);
+        int maxResults = limit != null && limit > 0 ? limit : defaultLimit;
+        int requestedStart = SlotGrid.minuteOf(startTime);
+        int duration = SlotGrid.minuteOf(endTime) - requestedStart;
+        if (duration <= 0) {
+            return new ArrayList<>();
+        }
+        slotIndexService.preload(venueId, date, date.plusDays(horizon));
+
+        List<Candidate> candidates = new ArrayList<>();
+
+        // Different start times on the requested day, on the hour, same duration
+        int opening = SlotGrid.minuteOf(slotGrid.getOpeningTime());
+        int closing = SlotGrid.minuteOf(slotGrid.getClosingTime());
+        for (int start = opening; start + duration <= closing; start += 60) {
+            if (start == requestedStart) {
+                continue;
+            }
+            LocalTime candidateStart = LocalTime.of(start / 60, start % 60);
+            LocalTime candidateEnd = candidateStart.plusMinutes(duration);
+            if (slotIndexService.isFree(venueId, date, candidateStart, candidateEnd)) {
+                candidates.add(new Candidate(date, candidateStart, candidateEnd,
+                    "different_time_same_day", Math.abs(start - requestedStart)));
+            }
+        }
+
+        // Same time on the following days; any same-day slot ranks before the next day
+        for (int offset = 1; offset <= horizon; offset++) {
+            LocalDate candidateDate = date.plusDays(offset);
+            if (slotIndexService.isFree(venueId, candidateDate, startTime, endTime)) {
+                candidates.add(new Candidate(candidateDate, startTime, endTime,
+                    "same_time_different_day", offset * 24 * 60));
+            }
+        }
+
+        candidates.sort(Comparator.comparingInt(c -> c.cost));
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && i < maxResults; i++) {
+            Map<String, Object> suggestion = candidates.get(i).toMap();
+            suggestion.put("rank", i + 1);
+            suggestions.add(suggestion);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Suggest the requested time at other venues, ranked by how closely their
+     * capacity fits the expected attendees. Venues smaller than the attendee
+     * count are skipped; without an attendee count the requested venue's
+     * capacity is used as the reference size.
+     * @param requestedVenue Venue of the conflicting request
+     * @param venues Active venues to consider
+     * @param date Requested date
+     * @param startTime Requested start time
+     * @param endTime Requested end time
+     * @param attendees Expected attendees, may be null
+     * @param limit Maximum suggestions, null for the configured default
+     * @return Suggestions ordered by rank, best capacity fit first
+     */
+    public List<Map<String, Object>> suggestOtherVenues(Venue requestedVenue, List<Venue> venues, LocalDate date,
+                                                        LocalTime startTime, LocalTime endTime,
+                                                        Integer attendees, Integer limit) {
+        int maxResults = limit != null && limit > 0 ? limit : defaultLimit;
+        int reference = attendees != null ? attendees
+            : requestedVenue.getCapacity() != null ? requestedVenue.getCapacity() : 0;
+
+        List<Venue> fitting = venues.stream()
+            .filter(venue -> !venue.getId().equals(requestedVenue.getId()))
+            .filter(venue -> venue.getCapacity() != null)
+            .filter(venue -> attendees == null || venue.getCapacity() >= attendees)
+            .collect(Collectors.toList());
+        if (fitting.isEmpty()) {
+            return new ArrayList<>();
+        }
+        slotIndexService.preload(fitting.stream().map(Venue::getId).collect(Collectors.toList()), date);
+
+        // Every venue-day is in memory now, so the per-venue checks fan out without touching the database
+        List<Map<String, Object>> suggestions = fitting.parallelStream()
+            .filter(venue -> slotIndexService.isFree(venue.getId(), date, startTime, endTime))
+            .sorted(Comparator.comparingInt((Venue venue) -> Math.abs(venue.getCapacity() - reference))
+                .thenComparing(Venue::getId))
+            .limit(maxResults)
+            .map(venue -> {
+                Map<String, Object> suggestion = new Candidate(date, startTime, endTime,
+                    "same_time_other_venue", 0).toMap();
+                suggestion.put("venueId", venue.getId());
+                suggestion.put("venueName", venue.getName());
+                suggestion.put("capacity", venue.getCapacity());
+                return suggestion;
+            })
+            .collect(Collectors.toList());
+        for (int i = 0; i < suggestions.size(); i++) {
+            suggestions.get(i).put("rank", i + 1);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Clamp a requested horizon to the configured bounds
+     * @param horizonDays Requested horizon, may be null
+     * @return Horizon in days
+     */
+    public int resolveHorizon(Integer horizonDays) {
+        if (horizonDays == null || horizonDays <= 0) {
+            return defaultHorizonDays;
+        }
+        return Math.min(horizonDays, maxHorizonDays);
+    }
+
+    private static class Candidate {
+        private final LocalDate date;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final String type;
+        private final int cost;
+
+        Candidate(LocalDate date, LocalTime startTime, LocalTime endTime, String type, int cost) {
+            this.date = date;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.type = type;
+            this.cost = cost;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> suggestion = new HashMap<>();
+            suggestion.put("date", date.toString());
+            suggestion.put("startTime", startTime.toString());
+            suggestion.put("endTime", endTime.toString());
+            suggestion.put("type", type);
+            return suggestion;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.smartslot.service;
+
+import com.smartslot.util.SlotGrid;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the month calendar of one venue in a single pass over its active
+ * bookings. Each booking bumps primitive per-day counters and sets bits in the
+ * day's occupancy bitmap; the response is assembled once at the end.
+ */
+public class VenueCalendarBuilder {
+
+    private final SlotGrid slotGrid;
+    private final LocalDate firstDay;
+    private final int[] bookingCounts;
+    private final int[] bookedMinutes;
+    private final long[][] occupancy;
+
+    public VenueCalendarBuilder(SlotGrid slotGrid, YearMonth month) {
+        this.slotGrid = slotGrid;
+        this.firstDay = month.atDay(1);
+        int days = month.lengthOfMonth();
+        this.bookingCounts = new int[days];
+        this.bookedMinutes = new int[days];
+        this.occupancy = new long[days][];
+    }
+
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    public LocalDate getLastDay() {
+        return firstDay.plusDays(bookingCounts.length - 1L);
+    }
+
+    /**
+     * Count an active booking towards its day
+     * @param date Booking date, must fall within the month
+     * @param startTime Start time
+     * @param endTime End time
+     */
+    public void add(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        int day = date.getDayOfMonth() - 1;
+        int startMinute = SlotGrid.minuteOf(startTime);
+        int endMinute = SlotGrid.minuteOf(endTime);
+        bookingCounts[day]++;
+        bookedMinutes[day] += Math.max(0, endMinute - startMinute);
+        if (occupancy[day] == null) {
+            occupancy[day] = slotGrid.newBitmap();
+        }
+        slotGrid.occupy(occupancy[day], startMinute, endMinute);
+    }
+
+    /**
+     * Build the calendar keyed by ISO date, in date order. Availability is
+     * "full" for a free day, "none" when every business-hours slot is taken
+     * and "partial" otherwise.
+     * @return Map of date to day summary
+     */
+    public Map<String, Object> build() {
+        int[] business = slotGrid.getBusinessSlots();
+        Map<String, Object> calendar = new LinkedHashMap<>();
+        for (int day = 0; day < bookingCounts.length; day++) {
+            String availability = "full";
+            if (bookingCounts[day] > 0) {
+                availability = slotGrid.allOccupied(occupancy[day], business[0], business[1]) ? "none" : "partial";
+            }
+
+            Map<String, Object> dayData = new LinkedHashMap<>();
+            dayData.put("booking_count", bookingCounts[day]);
+            dayData.put("booked_minutes", bookedMinutes[day]);
+            dayData.put("availability", availability);
+            calendar.put(firstDay.plusDays(day).toString(), dayData);
+        }
+        return calendar;
+    }
+}
@@ -0,0 +1,156 @@
+package com.smartslot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartslot.model.Venue;
+import com.smartslot.repository.VenueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Public venue catalog held as an immutable, pre-serialized snapshot.
+ *
+ * The snapshot is the exact /api/venues response body plus a version. It is
+ * rebuilt after every venue write on this node and refreshed periodically so
+ * that writes made on other nodes are picked up. Readers only dereference the
+ * current snapshot, so serving the catalog costs no database work and no
+ * serialization. The ETag combines the version with a digest of the body, so
+ * two nodes never hand out the same tag for different content.
+ */
+@Service
+public class VenueCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VenueCatalogService.class);
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Pick up venue changes made by other nodes
+     */
+    @Scheduled(fixedDelayString = "${booking.venues.catalog-refresh-ms:60000}",
+               initialDelayString = "${booking.venues.catalog-refresh-ms:60000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Get the current catalog, building it on first use
+     * @return Current snapshot
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Rebuild the catalog from the active venues. The version only moves when
+     * the serialized body actually changed.
+     * @return Snapshot now being served
+     */
+    public synchronized Snapshot rebuild() {
+        byte[] body = readOnly.execute(status -> {
+            // Serialize inside the transaction; amenities are loaded lazily
+            List<Venue> venues = venueRepository.findByIsActiveTrue();
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("success", true);
+            response.put("venues", venues);
+            try {
+                return objectMapper.writeValueAsBytes(response);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize venue catalog", e);
+            }
+        });
+        String digest = digest(body);
+        Snapshot current = snapshot;
+        if (current != null && current.digest.equals(digest)) {
+            return current;
+        }
+        long version = current != null ? current.version + 1 : 1;
+        snapshot = new Snapshot(version, digest, body);
+        logger.info("Venue catalog rebuilt: version {}, {} bytes", version, body.length);
+        return snapshot;
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Immutable catalog body with its version. The body array is never modified after construction.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final String digest;
+        private final byte[] body;
+        private final String etag;
+
+        private Snapshot(long version, String digest, byte[] body) {
+            this.version = version;
+            this.digest = digest;
+            this.body = body;
+            this.etag = "\"" + version + "-" + digest + "\"";
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
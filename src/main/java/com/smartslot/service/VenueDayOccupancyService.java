@@ -0,0 +1,225 @@
+package com.smartslot.service;
+
+import com.smartslot.model.VenueDayOccupancy;
+import com.smartslot.repository.BookingRepository;
+import com.smartslot.repository.VenueDayOccupancyRepository;
+import com.smartslot.util.SlotGrid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains the venue_day_occupancy rollup.
+ *
+ * Booking writers call prepare before their transaction, lock as its first
+ * statement and refresh once the booking and its claims are written. The row
+ * lock serializes writers of the same venue-day across nodes, so each refresh
+ * recomputes the day from the bookings table after every earlier writer has
+ * committed and the rollup cannot drift through lost updates.
+ */
+@Service
+public class VenueDayOccupancyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VenueDayOccupancyService.class);
+
+    @Autowired
+    private VenueDayOccupancyRepository occupancyRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SlotGrid slotGrid;
+
+    @Autowired
+    private VenueDayVersionService venueDayVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${booking.occupancy.rebuild-days:90}")
+    private int rebuildDays;
+
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    public void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Make sure the rollup row of a venue-day exists so that it can be locked.
+     * Runs in its own transaction; losing the insert race to another writer is fine.
+     * @param venueId Venue ID
+     * @param date Booking date
+     */
+    public void prepare(Long venueId, LocalDate date) {
+        if (occupancyRepository.existsByVenueIdAndBookingDate(venueId, date)) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status ->
+                occupancyRepository.saveAndFlush(new VenueDayOccupancy(venueId, date)));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another writer
+        }
+    }
+
+    /**
+     * Lock the rollup row of a venue-day for the rest of the caller's transaction.
+     * Must be the first statement of the transaction so that later reads see
+     * every writer that held the lock before.
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @return Locked row
+     */
+    public VenueDayOccupancy lock(Long venueId, LocalDate date) {
+        return occupancyRepository.findForUpdate(venueId, date)
+            .orElseThrow(() -> new IllegalStateException(
+                "Occupancy row missing for venue " + venueId + " on " + date));
+    }
+
+    /**
+     * Recompute a locked row from the active bookings of its day, including
+     * the caller's uncommitted changes, and bump its version
+     * @param occupancy Row returned by lock
+     */
+    public void refresh(VenueDayOccupancy occupancy) {
+        recompute(occupancy);
+        occupancy.setVersion(occupancy.getVersion() + 1);
+        occupancyRepository.save(occupancy);
+    }
+
+    /**
+     * Get the rollup rows of a venue over a date range with one range scan.
+     * Days without a row have no active bookings.
+     * @param venueId Venue ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Rows in date order
+     */
+    public List<VenueDayOccupancy> getRange(Long venueId, LocalDate startDate, LocalDate endDate) {
+        return occupancyRepository.findByVenueIdAndDateRange(venueId, startDate, endDate);
+    }
+
+    /**
+     * Start time of a first free slot index
+     * @param firstFreeSlot Slot index, may be null
+     * @return Start time, or null when the day is fully booked
+     */
+    public LocalTime toTime(Integer firstFreeSlot) {
+        if (firstFreeSlot == null) {
+            return null;
+        }
+        int minute = firstFreeSlot * slotGrid.getGranularityMinutes();
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    /**
+     * Recompute the rollup from the bookings table for a date range. Every
+     * venue-day that has active bookings or an existing row is refreshed in
+     * its own transaction under the same row lock booking writers use. The
+     * version only moves for days whose rollup had drifted, so the availability
+     * ETags of unchanged days survive the nightly pass.
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Number of venue-days recomputed
+     */
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        Set<List<Object>> venueDays = new LinkedHashSet<>();
+        for (Object[] row : bookingRepository.findActiveVenueDaysBetween(startDate, endDate)) {
+            venueDays.add(List.of(row[0], row[1]));
+        }
+        for (Object[] row : occupancyRepository.findVenueDaysBetween(startDate, endDate)) {
+            venueDays.add(List.of(row[0], row[1]));
+        }
+
+        int rebuilt = 0;
+        for (List<Object> venueDay : venueDays) {
+            Long venueId = (Long) venueDay.get(0);
+            LocalDate date = (LocalDate) venueDay.get(1);
+            try {
+                prepare(venueId, date);
+                VenueDayOccupancy drifted = requiresNew.execute(status -> {
+                    VenueDayOccupancy occupancy = lock(venueId, date);
+                    if (!recompute(occupancy)) {
+                        return null;
+                    }
+                    occupancy.setVersion(occupancy.getVersion() + 1);
+                    return occupancyRepository.save(occupancy);
+                });
+                if (drifted != null) {
+                    venueDayVersionService.publish(List.of(drifted));
+                }
+                rebuilt++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebuild occupancy of venue {} on {}", venueId, date, e);
+            }
+        }
+        logger.info("Rebuilt occupancy rollup for {} venue-days between {} and {}", rebuilt, startDate, endDate);
+        return rebuilt;
+    }
+
+    /**
+     * Rebuild the upcoming window from today
+     * @return Number of venue-days recomputed
+     */
+    public int rebuildFromToday() {
+        LocalDate today = LocalDate.now();
+        return rebuild(today, today.plusDays(rebuildDays));
+    }
+
+    /**
+     * Nightly recovery pass over the upcoming window
+     */
+    @Scheduled(cron = "${booking.occupancy.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuildFromToday();
+    }
+
+    /**
+     * Recompute the rollup columns of a row without saving it
+     * @param occupancy Row to recompute
+     * @return boolean true if any column changed
+     */
+    private boolean recompute(VenueDayOccupancy occupancy) {
+        List<Object[]> rows = bookingRepository.findActiveSlotRows(
+            occupancy.getVenueId(), occupancy.getBookingDate(), occupancy.getBookingDate());
+
+        long[] bits = slotGrid.newBitmap();
+        int bookedMinutes = 0;
+        for (Object[] row : rows) {
+            int startMinute = SlotGrid.minuteOf((LocalTime) row[3]);
+            int endMinute = SlotGrid.minuteOf((LocalTime) row[4]);
+            bookedMinutes += Math.max(0, endMinute - startMinute);
+            slotGrid.occupy(bits, startMinute, endMinute);
+        }
+        int[] business = slotGrid.getBusinessSlots();
+        int firstFree = slotGrid.firstFree(bits, business[0], business[1]);
+        Integer firstFreeSlot = firstFree >= 0 ? firstFree : null;
+
+        boolean changed = occupancy.getActiveBookings() != rows.size()
+            || occupancy.getBookedMinutes() != bookedMinutes
+            || !Objects.equals(occupancy.getFirstFreeSlot(), firstFreeSlot);
+        occupancy.setActiveBookings(rows.size());
+        occupancy.setBookedMinutes(bookedMinutes);
+        occupancy.setFirstFreeSlot(firstFreeSlot);
+        return changed;
+    }
+}
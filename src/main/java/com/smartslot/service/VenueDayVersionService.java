@@ -0,0 +1,165 @@
+package com.smartslot.service;
+
+import com.smartslot.model.VenueDayOccupancy;
+import com.smartslot.repository.VenueDayOccupancyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of venue-day versions used to derive availability ETags.
+ *
+ * The version lives on the venue_day_occupancy row and is bumped by every
+ * booking write to the day under the row lock. Writers on this node publish
+ * the committed version here once the slot index reflects the write, so a tag
+ * is never attached to a view older than its version. Entries are re-read from
+ * the database after a short TTL, which picks up writes made on other nodes and
+ * repopulates the store after a restart; a newer version seen that way drops the
+ * day from the slot index so that it is reloaded before being served again.
+ */
+@Service
+public class VenueDayVersionService {
+
+    @Autowired
+    private VenueDayOccupancyRepository occupancyRepository;
+
+    @Autowired
+    private SlotIndexService slotIndexService;
+
+    @Value("${booking.etag.version-ttl-ms:5000}")
+    private long versionTtlMs;
+
+    private final ConcurrentHashMap<VenueDayKey, Entry> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Get the current version of a venue-day
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @return Version, 0 for a day that was never written
+     */
+    public long getVersion(Long venueId, LocalDate date) {
+        Entry entry = versions.get(new VenueDayKey(venueId, date));
+        if (entry != null && isFresh(entry)) {
+            return entry.version;
+        }
+        return load(venueId, date, date).get(date);
+    }
+
+    /**
+     * Get a version for a date range that grows whenever any of its days changes
+     * @param venueId Venue ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Sum of the day versions
+     */
+    public long getRangeVersion(Long venueId, LocalDate startDate, LocalDate endDate) {
+        long sum = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            Entry entry = versions.get(new VenueDayKey(venueId, date));
+            if (entry == null || !isFresh(entry)) {
+                // One range scan refreshes every day of the range
+                return load(venueId, startDate, endDate).values().stream().mapToLong(Long::longValue).sum();
+            }
+            sum += entry.version;
+        }
+        return sum;
+    }
+
+    /**
+     * Publish the versions committed by a booking write. Must be called after
+     * the slot index has been updated for the write.
+     * @param occupancies Rows refreshed by the committed transaction
+     */
+    public void publish(Collection<VenueDayOccupancy> occupancies) {
+        long now = System.currentTimeMillis();
+        for (VenueDayOccupancy occupancy : occupancies) {
+            long version = occupancy.getVersion();
+            versions.compute(new VenueDayKey(occupancy.getVenueId(), occupancy.getBookingDate()), (key, current) -> {
+                if (current != null && current.version >= version) {
+                    return current;
+                }
+                if (current == null || version > current.version + 1) {
+                    // Versions in between were written elsewhere and may be missing from the index
+                    slotIndexService.evict(key.venueId, key.date);
+                }
+                return new Entry(version, now);
+            });
+        }
+    }
+
+    /**
+     * Drop venue-days in the past, their availability is no longer queried
+     */
+    @Scheduled(cron = "0 20 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        versions.keySet().removeIf(key -> key.date.isBefore(today));
+    }
+
+    private Map<LocalDate, Long> load(Long venueId, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, Long> stored = new HashMap<>();
+        for (Object[] row : occupancyRepository.findVersions(venueId, startDate, endDate)) {
+            stored.put((LocalDate) row[0], (Long) row[1]);
+        }
+        long now = System.currentTimeMillis();
+        Map<LocalDate, Long> loaded = new HashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            long version = stored.getOrDefault(date, 0L);
+            Entry entry = versions.compute(new VenueDayKey(venueId, date), (key, current) -> {
+                if (current == null || version > current.version) {
+                    // Written elsewhere, or never tracked here: the index may hold an older view of the day
+                    slotIndexService.evict(key.venueId, key.date);
+                    return new Entry(version, now);
+                }
+                return new Entry(current.version, now);
+            });
+            loaded.put(date, entry.version);
+        }
+        return loaded;
+    }
+
+    private boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.checkedAt < versionTtlMs;
+    }
+
+    private static class Entry {
+        private final long version;
+        private final long checkedAt;
+
+        Entry(long version, long checkedAt) {
+            this.version = version;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    private static class VenueDayKey {
+        private final Long venueId;
+        private final LocalDate date;
+
+        VenueDayKey(Long venueId, LocalDate date) {
+            this.venueId = venueId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof VenueDayKey)) return false;
+            VenueDayKey other = (VenueDayKey) o;
+            return venueId.equals(other.venueId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(venueId, date);
+        }
+    }
+}
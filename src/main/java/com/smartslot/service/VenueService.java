@@ -2,14 +2,21 @@ package com.smartslot.service;
 
 import com.smartslot.model.Venue;
 import com.smartslot.repository.VenueRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,6 +25,15 @@ public class VenueService {
     @Autowired
     private VenueRepository venueRepository;
     
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private VenueCatalogService venueCatalogService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
     // Get all venues
     public List<Venue> getAllVenues() {
         return venueRepository.findAll();
@@ -42,6 +58,7 @@ public class VenueService {
         if (venues.isEmpty()) {
             System.out.println("No venues found, creating basic venues...");
             venues = createBasicVenues();
+            venueCatalogService.rebuild();
             System.out.println("Created " + venues.size() + " basic venues");
         } else {
             System.out.println("Found " + venues.size() + " existing venues");
@@ -110,6 +127,7 @@ public class VenueService {
                 venueRepository.save(venue);
             }
         }
+        venueCatalogService.rebuild();
     }
 
     // Get venue by ID
@@ -128,45 +146,60 @@ public class VenueService {
             venue.setHourlyRate(BigDecimal.ZERO); // Free for college venues
         }
         
-        return venueRepository.save(venue);
+        Venue saved = venueRepository.save(venue);
+        venueCatalogService.rebuild();
+        return saved;
     }
     
-    // Update venue
+    // Update venue; load and write in one transaction so the cached venue and amenities are replaced on commit
     public Venue updateVenue(Long id, Venue venueDetails) {
-        Optional<Venue> optionalVenue = venueRepository.findById(id);
-        if (optionalVenue.isPresent()) {
-            Venue venue = optionalVenue.get();
-            venue.setName(venueDetails.getName());
-            venue.setDescription(venueDetails.getDescription());
-            venue.setCapacity(venueDetails.getCapacity());
-            venue.setLocation(venueDetails.getLocation());
-            venue.setHourlyRate(venueDetails.getHourlyRate());
-            venue.setAmenities(venueDetails.getAmenities());
-            venue.setImageUrl(venueDetails.getImageUrl());
-            venue.setIsActive(venueDetails.getIsActive());
-            venue.setUpdatedAt(LocalDateTime.now());
-            return venueRepository.save(venue);
+        Venue updated = transactionTemplate.execute(status -> {
+            Optional<Venue> optionalVenue = venueRepository.findById(id);
+            if (optionalVenue.isPresent()) {
+                Venue venue = optionalVenue.get();
+                venue.setName(venueDetails.getName());
+                venue.setDescription(venueDetails.getDescription());
+                venue.setCapacity(venueDetails.getCapacity());
+                venue.setLocation(venueDetails.getLocation());
+                venue.setHourlyRate(venueDetails.getHourlyRate());
+                venue.setAmenities(venueDetails.getAmenities());
+                venue.setImageUrl(venueDetails.getImageUrl());
+                venue.setIsActive(venueDetails.getIsActive());
+                venue.setUpdatedAt(LocalDateTime.now());
+                return venueRepository.save(venue);
+            }
+            return null;
+        });
+        if (updated != null) {
+            venueCatalogService.rebuild();
         }
-        return null;
+        return updated;
     }
     
     // Delete venue (soft delete)
     public boolean deleteVenue(Long id) {
-        Optional<Venue> optionalVenue = venueRepository.findById(id);
-        if (optionalVenue.isPresent()) {
-            Venue venue = optionalVenue.get();
-            venue.setIsActive(false);
-            venue.setUpdatedAt(LocalDateTime.now());
-            venueRepository.save(venue);
-            return true;
+        boolean deleted = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Optional<Venue> optionalVenue = venueRepository.findById(id);
+            if (optionalVenue.isPresent()) {
+                Venue venue = optionalVenue.get();
+                venue.setIsActive(false);
+                venue.setUpdatedAt(LocalDateTime.now());
+                venueRepository.save(venue);
+                return true;
+            }
+            return false;
+        }));
+        if (deleted) {
+            venueCatalogService.rebuild();
         }
-        return false;
+        return deleted;
     }
     
     // Hard delete venue
     public boolean hardDeleteVenue(Long id) {
         if (venueRepository.existsById(id)) {
             venueRepository.deleteById(id);
+            venueCatalogService.rebuild();
             return true;
         }
         return false;
@@ -218,5 +251,34 @@ public class VenueService {
         return venueRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(name).stream()
                 .anyMatch(venue -> venue.getName().equalsIgnoreCase(name) && !venue.getId().equals(currentId));
     }
+    
+    // Second-level cache statistics per region (venues, amenities, cached venue queries)
+    public Map<String, Object> getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, toCacheStats(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statistics_enabled", statistics.isStatisticsEnabled());
+        stats.put("second_level", toCacheStats(statistics.getSecondLevelCacheHitCount(),
+            statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        stats.put("query_cache", toCacheStats(statistics.getQueryCacheHitCount(),
+            statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        stats.put("regions", regions);
+        return stats;
+    }
+    
+    private static Map<String, Object> toCacheStats(long hits, long misses, long puts) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", puts);
+        stats.put("hit_rate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return stats;
+    }
 }
-
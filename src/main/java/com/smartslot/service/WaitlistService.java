@@ -0,0 +1,248 @@
+package com.smartslot.service;
+
+import com.smartslot.model.Booking;
+import com.smartslot.model.User;
+import com.smartslot.model.Venue;
+import com.smartslot.model.WaitlistEntry;
+import com.smartslot.repository.VenueRepository;
+import com.smartslot.repository.WaitlistEntryRepository;
+import com.smartslot.util.SlotGrid;
+import com.smartslot.util.VenueDayLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Waitlist for taken time ranges. Entries are kept in the database and
+ * matched by venue-day through an index; BookingService promotes them when a
+ * booking of their venue-day is cancelled, rejected or expires.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private SlotIndexService slotIndexService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private VenueDayLocks venueDayLocks;
+
+    @Autowired
+    private SlotGrid slotGrid;
+
+    /**
+     * Join the waitlist for a taken time range
+     * @param user User
+     * @param venueId Venue ID
+     * @param date Date string (YYYY-MM-DD)
+     * @param startTime Start time string (HH:mm)
+     * @param endTime End time string (HH:mm)
+     * @param title Booking title for the promoted booking
+     * @param purpose Booking purpose for the promoted booking
+     * @return Map containing the entry and its queue position
+     */
+    public Map<String, Object> join(User user, Long venueId, String date, String startTime, String endTime,
+                                    String title, String purpose) {
+        Map<String, Object> result = new HashMap<>();
+        
+        LocalDate bookingDate;
+        LocalTime start;
+        LocalTime end;
+        try {
+            bookingDate = LocalDate.parse(date);
+            start = LocalTime.parse(startTime);
+            end = LocalTime.parse(endTime);
+        } catch (DateTimeParseException e) {
+            result.put("success", false);
+            result.put("error", "Invalid date or time format");
+            return result;
+        }
+        
+        if (!start.isBefore(end)) {
+            result.put("success", false);
+            result.put("error", "Start time must be before end time");
+            return result;
+        }
+        
+        // A promoted entry becomes a booking, which has to lie on the slot grid
+        if (!slotGrid.isAligned(start) || !slotGrid.isAligned(end)) {
+            result.put("success", false);
+            result.put("error", "Start and end times must be on a " + slotGrid.getGranularityMinutes() + "-minute boundary");
+            return result;
+        }
+        
+        if (bookingDate.isBefore(LocalDate.now())) {
+            result.put("success", false);
+            result.put("error", "Cannot join the waitlist for past dates");
+            return result;
+        }
+        
+        Optional<Venue> venue = venueRepository.findById(venueId);
+        if (venue.isEmpty()) {
+            result.put("success", false);
+            result.put("error", "Venue not found");
+            return result;
+        }
+        
+        // Promotion holds the same lock, so a slot freed after the check is
+        // offered to this entry once it is saved
+        WaitlistEntry saved;
+        venueDayLocks.lock(venueId, bookingDate);
+        try {
+            if (slotIndexService.isFree(venueId, bookingDate, start, end)) {
+                result.put("success", false);
+                result.put("available", true);
+                result.put("error", "Time slot is available, book it directly");
+                return result;
+            }
+            
+            if (waitlistEntryRepository.existsWaiting(user, venueId, bookingDate, start, end)) {
+                result.put("success", false);
+                result.put("error", "You are already on the waitlist for this time slot");
+                return result;
+            }
+            
+            WaitlistEntry entry = new WaitlistEntry(venue.get(), user, bookingDate, start, end);
+            entry.setTitle(title != null ? title : "Booking for " + venue.get().getName() + " on " + date);
+            entry.setPurpose(purpose != null ? purpose : "General booking");
+            saved = waitlistEntryRepository.save(entry);
+        } finally {
+            venueDayLocks.unlock(venueId, bookingDate);
+        }
+        
+        result.put("success", true);
+        result.put("entry", toMap(saved));
+        result.put("position", waitlistEntryRepository.countWaitingAhead(venueId, bookingDate, start, end, saved.getCreatedAt()));
+        result.put("message", "You are on the waitlist. We will book the slot for you as soon as it frees up.");
+        return result;
+    }
+    
+    /**
+     * Leave the waitlist
+     * @param entryId Waitlist entry ID
+     * @param user User owning the entry
+     * @return Map containing the result
+     */
+    public Map<String, Object> leave(Long entryId, User user) {
+        Map<String, Object> result = new HashMap<>();
+        
+        Optional<WaitlistEntry> optionalEntry = waitlistEntryRepository.findById(entryId);
+        if (optionalEntry.isEmpty()) {
+            result.put("success", false);
+            result.put("error", "Waitlist entry not found");
+            return result;
+        }
+        
+        WaitlistEntry entry = optionalEntry.get();
+        if (!entry.getUser().getId().equals(user.getId())) {
+            result.put("success", false);
+            result.put("error", "You can only leave your own waitlist entries");
+            return result;
+        }
+        
+        if (entry.getStatus() != WaitlistEntry.WaitlistStatus.WAITING) {
+            result.put("success", false);
+            result.put("error", "Only waiting entries can be removed");
+            return result;
+        }
+        
+        entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED);
+        waitlistEntryRepository.save(entry);
+        
+        result.put("success", true);
+        result.put("message", "Removed from the waitlist");
+        return result;
+    }
+    
+    /**
+     * Get a user's waitlist entries, newest first
+     * @param user User
+     * @return List of entry maps
+     */
+    public List<Map<String, Object>> getUserEntries(User user) {
+        return waitlistEntryRepository.findByUserWithVenue(user).stream()
+            .map(this::toMap)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Get the waiting entries of a venue-day in arrival order, with user and venue loaded
+     * @param venueId Venue ID
+     * @param date Booking date
+     * @return List of waiting entries
+     */
+    public List<WaitlistEntry> findWaiting(Long venueId, LocalDate date) {
+        return waitlistEntryRepository.findWaiting(venueId, date);
+    }
+    
+    /**
+     * Mark an entry as promoted. Joins the caller's transaction so that the
+     * entry and its booking are committed together.
+     * @param entry Waiting entry
+     * @param booking Booking created for it
+     * @throws EntryNotWaitingException if the entry stopped waiting in the meantime
+     */
+    public void markPromoted(WaitlistEntry entry, Booking booking) {
+        if (waitlistEntryRepository.markPromoted(entry.getId(), booking.getId(), LocalDateTime.now()) == 0) {
+            throw new EntryNotWaitingException("Waitlist entry " + entry.getId() + " is no longer waiting");
+        }
+    }
+    
+    /**
+     * Expire entries whose date has passed
+     */
+    @Scheduled(cron = "0 20 0 * * *")
+    public void expirePastEntries() {
+        Integer expired = transactionTemplate.execute(status -> waitlistEntryRepository.expireBefore(LocalDate.now()));
+        if (expired != null && expired > 0) {
+            logger.info("Expired {} waitlist entries", expired);
+        }
+    }
+    
+    private Map<String, Object> toMap(WaitlistEntry entry) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", entry.getId());
+        map.put("venueId", entry.getVenue().getId());
+        map.put("venueName", entry.getVenue().getName());
+        map.put("date", entry.getBookingDate().toString());
+        map.put("startTime", entry.getStartTime().toString());
+        map.put("endTime", entry.getEndTime().toString());
+        map.put("title", entry.getTitle());
+        map.put("status", entry.getStatus().toString());
+        map.put("promotedBookingId", entry.getPromotedBookingId());
+        map.put("createdAt", entry.getCreatedAt());
+        return map;
+    }
+    
+    /**
+     * Thrown when an entry is promoted after its user left the waitlist or it expired
+     */
+    public static class EntryNotWaitingException extends RuntimeException {
+        public EntryNotWaitingException(String message) {
+            super(message);
+        }
+    }
+}
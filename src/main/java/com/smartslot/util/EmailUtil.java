@@ -1,20 +1,40 @@
 package com.smartslot.util;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+
 @Component
 public class EmailUtil {
     @Autowired
     private JavaMailSender mailSender;
 
-    public void sendEmail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-        mailSender.send(message);
+    // With an HTML body the message is multipart/alternative with the text as fallback
+    public MimeMessage createMessage(String to, String subject, String text, String html) {
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(message, html != null, StandardCharsets.UTF_8.name());
+            helper.setTo(to);
+            helper.setSubject(subject);
+            if (html != null) {
+                helper.setText(text, html);
+            } else {
+                helper.setText(text);
+            }
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Failed to prepare email to " + to, e);
+        }
+        return message;
+    }
+
+    // All messages go over one SMTP connection; a MailSendException lists the ones that failed
+    public void sendEmails(MimeMessage... messages) {
+        mailSender.send(messages);
     }
-} 
\ No newline at end of file
+}
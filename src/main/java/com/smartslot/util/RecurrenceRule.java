@@ -0,0 +1,197 @@
+package com.smartslot.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Subset of the iCalendar RRULE syntax used for recurring bookings, e.g.
+ * "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,WE;UNTIL=2025-12-19" or "FREQ=DAILY;COUNT=5".
+ *
+ * FREQ is DAILY or WEEKLY, INTERVAL defaults to 1 and BYDAY (weekly only)
+ * defaults to the weekday of the first occurrence. One of COUNT or UNTIL is
+ * required so that every rule expands to a finite list of dates.
+ */
+public class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY, WEEKLY
+    }
+
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Parse a rule string
+     * @param rule Rule such as "FREQ=WEEKLY;BYDAY=MO,WE;COUNT=15"
+     * @return Parsed rule
+     * @throws IllegalArgumentException if the rule is malformed or unbounded
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        LocalDate until = null;
+
+        String body = rule.trim().toUpperCase();
+        if (body.startsWith("RRULE:")) {
+            body = body.substring("RRULE:".length());
+        }
+        try {
+            for (String part : body.split(";")) {
+                if (part.isBlank()) {
+                    continue;
+                }
+                String[] pair = part.split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+                }
+                String value = pair[1].trim();
+                switch (pair[0].trim()) {
+                    case "FREQ":
+                        frequency = Frequency.valueOf(value);
+                        break;
+                    case "INTERVAL":
+                        interval = Integer.parseInt(value);
+                        break;
+                    case "BYDAY":
+                        for (String code : value.split(",")) {
+                            byDay.add(toDayOfWeek(code.trim()));
+                        }
+                        break;
+                    case "COUNT":
+                        count = Integer.parseInt(value);
+                        break;
+                    case "UNTIL":
+                        until = LocalDate.parse(value.length() == 8
+                            ? value.substring(0, 4) + "-" + value.substring(4, 6) + "-" + value.substring(6)
+                            : value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported recurrence rule part: " + pair[0]);
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid recurrence rule: " + rule);
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("FREQ must be DAILY or WEEKLY");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("INTERVAL must be at least 1");
+        }
+        if (count == null && until == null) {
+            throw new IllegalArgumentException("Either COUNT or UNTIL is required");
+        }
+        if (count != null && count < 1) {
+            throw new IllegalArgumentException("COUNT must be at least 1");
+        }
+        if (frequency == Frequency.DAILY && !byDay.isEmpty()) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count, until);
+    }
+
+    /**
+     * Expand the rule into occurrence dates in ascending order
+     * @param start First occurrence candidate (DTSTART)
+     * @param maxOccurrences Stop after this many dates
+     * @return Occurrence dates, at most maxOccurrences of them
+     */
+    public List<LocalDate> expand(LocalDate start, int maxOccurrences) {
+        int limit = count != null ? Math.min(count, maxOccurrences) : maxOccurrences;
+        List<LocalDate> dates = new ArrayList<>();
+        if (frequency == Frequency.DAILY) {
+            for (LocalDate date = start; dates.size() < limit && isBeforeUntil(date); date = date.plusDays(interval)) {
+                dates.add(date);
+            }
+            return dates;
+        }
+
+        Set<DayOfWeek> days = byDay.isEmpty() ? EnumSet.of(start.getDayOfWeek()) : byDay;
+        LocalDate weekStart = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        for (LocalDate week = weekStart; dates.size() < limit && isBeforeUntil(week); week = week.plusWeeks(interval)) {
+            for (DayOfWeek day : days) {
+                LocalDate date = week.plusDays(day.getValue() - 1L);
+                if (date.isBefore(start)) {
+                    continue;
+                }
+                if (!isBeforeUntil(date) || dates.size() >= limit) {
+                    break;
+                }
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Check whether the rule would produce more dates than a limit
+     * @param start First occurrence candidate
+     * @param maxOccurrences Allowed number of occurrences
+     * @return boolean true if the expansion exceeds the limit
+     */
+    public boolean exceeds(LocalDate start, int maxOccurrences) {
+        return expand(start, maxOccurrences + 1).size() > maxOccurrences;
+    }
+
+    /**
+     * Canonical rule string, stored with each occurrence
+     */
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            rule.append(";BYDAY=").append(byDay.stream()
+                .map(day -> DAY_CODES[day.getValue() - 1])
+                .collect(Collectors.joining(",")));
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until);
+        }
+        return rule.toString();
+    }
+
+    private boolean isBeforeUntil(LocalDate date) {
+        return until == null || !date.isAfter(until);
+    }
+
+    private static DayOfWeek toDayOfWeek(String code) {
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code)) {
+                return DayOfWeek.of(i + 1);
+            }
+        }
+        throw new IllegalArgumentException("Invalid BYDAY value: " + code);
+    }
+}
@@ -0,0 +1,233 @@
+package com.smartslot.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalTime;
+
+/**
+ * Fixed-granularity slot grid for a venue-day.
+ *
+ * A day is split into slots of booking.slots.granularity-minutes (15 minutes
+ * gives 96 slots), and a venue-day's occupancy is a primitive bitmap with one
+ * bit per slot. Free-slot, overlap and "fully booked" questions are answered
+ * with word-level operations on that bitmap.
+ *
+ * Bookings start and end on slot boundaries, so the slots a booking claims are
+ * exactly the minutes it covers. The granularity is also baked into the stored
+ * slot_claims.slot_index values: changing it invalidates every existing claim,
+ * so the table has to be emptied while the application is down; the startup
+ * backfill then claims the active bookings again on the new grid.
+ */
+@Component
+public class SlotGrid {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Value("${booking.slots.granularity-minutes:15}")
+    private int granularityMinutes;
+
+    @Value("${booking.slots.open-hour:9}")
+    private int openHour;
+
+    @Value("${booking.slots.close-hour:18}")
+    private int closeHour;
+
+    private int slotsPerDay;
+    private int wordsPerDay;
+    private String[] boundaryLabels;
+
+    public SlotGrid() {
+    }
+
+    public SlotGrid(int granularityMinutes, int openHour, int closeHour) {
+        this.granularityMinutes = granularityMinutes;
+        this.openHour = openHour;
+        this.closeHour = closeHour;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        if (granularityMinutes <= 0 || 60 % granularityMinutes != 0) {
+            throw new IllegalStateException("booking.slots.granularity-minutes must divide 60, got " + granularityMinutes);
+        }
+        if (openHour < 0 || closeHour > 24 || openHour >= closeHour) {
+            throw new IllegalStateException("Invalid booking hours " + openHour + "-" + closeHour);
+        }
+        slotsPerDay = MINUTES_PER_DAY / granularityMinutes;
+        wordsPerDay = (slotsPerDay + 63) / 64;
+        boundaryLabels = new String[slotsPerDay + 1];
+        for (int slot = 0; slot < slotsPerDay; slot++) {
+            int minute = slot * granularityMinutes;
+            boundaryLabels[slot] = LocalTime.of(minute / 60, minute % 60).toString();
+        }
+        boundaryLabels[slotsPerDay] = "24:00";
+    }
+
+    public int getGranularityMinutes() {
+        return granularityMinutes;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public LocalTime getOpeningTime() {
+        return LocalTime.of(openHour, 0);
+    }
+
+    public LocalTime getClosingTime() {
+        return closeHour == 24 ? LocalTime.MAX : LocalTime.of(closeHour, 0);
+    }
+
+    /**
+     * Get the business-hours window as [fromSlot, toSlot)
+     * @return two-element array of slot indexes
+     */
+    public int[] getBusinessSlots() {
+        return new int[] { openHour * 60 / granularityMinutes, closeHour * 60 / granularityMinutes };
+    }
+
+    /**
+     * Get the time a slot starts at as HH:mm; slotsPerDay gives the end of the day, 24:00
+     */
+    public String boundaryLabel(int slot) {
+        return boundaryLabels[slot];
+    }
+
+    /**
+     * Allocate an empty occupancy bitmap for one day
+     * @return bitmap with all slots free
+     */
+    public long[] newBitmap() {
+        return new long[wordsPerDay];
+    }
+
+    /**
+     * Minute-of-day of a time, the unit every slot computation starts from
+     */
+    public static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * First slot touched by a minute-of-day (rounded down)
+     */
+    public int slotFloor(int minuteOfDay) {
+        return minuteOfDay / granularityMinutes;
+    }
+
+    /**
+     * Slot after the last one touched by a minute-of-day (rounded up)
+     */
+    public int slotCeil(int minuteOfDay) {
+        return (minuteOfDay + granularityMinutes - 1) / granularityMinutes;
+    }
+
+    /**
+     * Check if a minute-of-day falls exactly on a slot boundary
+     */
+    public boolean isAligned(int minuteOfDay) {
+        return minuteOfDay % granularityMinutes == 0;
+    }
+
+    /**
+     * Check if a time falls exactly on a slot boundary
+     */
+    public boolean isAligned(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0 && isAligned(minuteOf(time));
+    }
+
+    /**
+     * Mark every slot touched by [startMinute, endMinute) as occupied
+     * @param bits Bitmap to update
+     * @param startMinute Start minute of day
+     * @param endMinute End minute of day (exclusive)
+     */
+    public void occupy(long[] bits, int startMinute, int endMinute) {
+        int from = slotFloor(startMinute);
+        int to = slotCeil(endMinute);
+        for (int word = from >>> 6; from < to && word <= (to - 1) >>> 6; word++) {
+            bits[word] |= mask(word, from, to);
+        }
+    }
+
+    /**
+     * Check if any slot in [fromSlot, toSlot) is occupied
+     */
+    public boolean anyOccupied(long[] bits, int fromSlot, int toSlot) {
+        for (int word = fromSlot >>> 6; fromSlot < toSlot && word <= (toSlot - 1) >>> 6; word++) {
+            if ((bits[word] & mask(word, fromSlot, toSlot)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if every slot in [fromSlot, toSlot) is occupied
+     */
+    public boolean allOccupied(long[] bits, int fromSlot, int toSlot) {
+        for (int word = fromSlot >>> 6; fromSlot < toSlot && word <= (toSlot - 1) >>> 6; word++) {
+            long mask = mask(word, fromSlot, toSlot);
+            if ((bits[word] & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the first free slot in [fromSlot, toSlot)
+     * @return slot index or -1 if all are occupied
+     */
+    public int firstFree(long[] bits, int fromSlot, int toSlot) {
+        for (int word = fromSlot >>> 6; fromSlot < toSlot && word <= (toSlot - 1) >>> 6; word++) {
+            long free = ~bits[word] & mask(word, fromSlot, toSlot);
+            if (free != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count occupied slots in [fromSlot, toSlot)
+     */
+    public int countOccupied(long[] bits, int fromSlot, int toSlot) {
+        int count = 0;
+        for (int word = fromSlot >>> 6; fromSlot < toSlot && word <= (toSlot - 1) >>> 6; word++) {
+            count += Long.bitCount(bits[word] & mask(word, fromSlot, toSlot));
+        }
+        return count;
+    }
+
+    /**
+     * Encode the slots in [fromSlot, toSlot) as hex, four slots per digit with
+     * the first slot in the digit's high bit. A set bit means occupied.
+     */
+    public String toHex(long[] bits, int fromSlot, int toSlot) {
+        StringBuilder hex = new StringBuilder((toSlot - fromSlot + 3) / 4);
+        for (int slot = fromSlot; slot < toSlot; slot += 4) {
+            int digit = 0;
+            for (int i = 0; i < 4; i++) {
+                digit <<= 1;
+                int bit = slot + i;
+                if (bit < toSlot && (bits[bit >>> 6] & (1L << (bit & 63))) != 0) {
+                    digit |= 1;
+                }
+            }
+            hex.append(Character.forDigit(digit, 16));
+        }
+        return hex.toString();
+    }
+
+    private static long mask(int word, int fromSlot, int toSlot) {
+        int lo = Math.max(fromSlot - word * 64, 0);
+        int hi = Math.min(toSlot - word * 64, 64);
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+}
@@ -0,0 +1,130 @@
+package com.smartslot.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel.
+ *
+ * Time advances in fixed ticks. Level 0 has one bucket per tick, each higher
+ * level has buckets wheelSize times coarser. An item lands in the lowest level
+ * whose current rotation still reaches its deadline; when time crosses a
+ * coarse bucket boundary that bucket is cascaded into the finer levels, and
+ * the level-0 bucket of the current tick is what expires. Adding and expiring
+ * are O(1) per item regardless of how many deadlines are registered.
+ *
+ * Not thread-safe on its own; callers synchronize.
+ *
+ * @param <T> Item type
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTicks;
+    private final List<List<Entry<T>>>[] levels;
+    private final List<T> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTicks = new long[levelCount];
+        this.levels = new List[levelCount];
+        long ticks = 1;
+        for (int level = 0; level < levelCount; level++) {
+            levelTicks[level] = ticks;
+            levels[level] = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                levels[level].add(new ArrayList<>());
+            }
+            ticks *= wheelSize;
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Register an item. Items whose deadline has already passed are returned by the next advance.
+     * @param item Item to expire
+     * @param deadlineMillis Epoch millis at or after which the item expires
+     */
+    public void add(T item, long deadlineMillis) {
+        // Round up so an item never fires before its deadline
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Advance the wheel to a point in time
+     * @param nowMillis Current epoch millis
+     * @return Items whose deadline has been reached, in no particular order
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade coarse buckets whose boundary was crossed, highest level first
+            for (int level = levels.length - 1; level > 0; level--) {
+                if (currentTick % levelTicks[level] == 0) {
+                    List<Entry<T>> bucket = levels[level].get(slot(currentTick, level));
+                    List<Entry<T>> cascaded = new ArrayList<>(bucket);
+                    bucket.clear();
+                    cascaded.forEach(this::place);
+                }
+            }
+            List<Entry<T>> due = levels[0].get(slot(currentTick, 0));
+            for (Entry<T> entry : due) {
+                expired.add(entry.item);
+            }
+            due.clear();
+            expired.addAll(overdue);
+            overdue.clear();
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    /**
+     * Number of registered items that have not expired yet
+     */
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadlineTick <= currentTick) {
+            overdue.add(entry.item);
+            return;
+        }
+        for (int level = 0; level < levels.length; level++) {
+            long distance = entry.deadlineTick / levelTicks[level] - currentTick / levelTicks[level];
+            if (distance < wheelSize || level == levels.length - 1) {
+                // Beyond the top level's reach the entry is simply cascaded again on its next visit
+                levels[level].get(slot(entry.deadlineTick, level)).add(entry);
+                return;
+            }
+        }
+    }
+
+    private int slot(long tick, int level) {
+        return (int) ((tick / levelTicks[level]) % wheelSize);
+    }
+
+    private static class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
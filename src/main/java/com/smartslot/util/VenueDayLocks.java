@@ -0,0 +1,153 @@
+package com.smartslot.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed by (venueId, date).
+ *
+ * Booking writers for the same venue-day are serialized so that the conflict
+ * check and the insert happen atomically on this node; writers for other
+ * venue-days hash to other stripes and keep running in parallel. Every
+ * acquisition that had to wait is counted per venue to surface hot venues.
+ */
+@Component
+public class VenueDayLocks {
+
+    @Value("${booking.locks.stripes:64}")
+    private int stripeCount;
+
+    private ReentrantLock[] stripes;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final ConcurrentHashMap<Long, VenueContention> contention = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // Round up to a power of two so the stripe is a mask of the hash
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Acquire the lock guarding a venue-day. Callers must release it with unlock in a finally block.
+     * @param venueId Venue ID
+     * @param date Booking date
+     */
+    public void lock(Long venueId, LocalDate date) {
+        ReentrantLock lock = stripeFor(venueId, date);
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        long waitStart = System.nanoTime();
+        lock.lock();
+        contention.computeIfAbsent(venueId, id -> new VenueContention())
+            .record(System.nanoTime() - waitStart);
+    }
+
+    /**
+     * Release the lock guarding a venue-day
+     * @param venueId Venue ID
+     * @param date Booking date
+     */
+    public void unlock(Long venueId, LocalDate date) {
+        stripeFor(venueId, date).unlock();
+    }
+
+    /**
+     * Acquire the locks guarding several days of a venue. Stripes are taken in
+     * index order so that two multi-day writers can never deadlock. Callers
+     * must release them with unlockAll in a finally block.
+     * @param venueId Venue ID
+     * @param dates Booking dates
+     */
+    public void lockAll(Long venueId, Collection<LocalDate> dates) {
+        for (int stripe : stripesFor(venueId, dates)) {
+            ReentrantLock lock = stripes[stripe];
+            acquisitions.increment();
+            if (lock.tryLock()) {
+                continue;
+            }
+            long waitStart = System.nanoTime();
+            lock.lock();
+            contention.computeIfAbsent(venueId, id -> new VenueContention())
+                .record(System.nanoTime() - waitStart);
+        }
+    }
+
+    /**
+     * Release the locks taken by lockAll
+     * @param venueId Venue ID
+     * @param dates Booking dates passed to lockAll
+     */
+    public void unlockAll(Long venueId, Collection<LocalDate> dates) {
+        for (int stripe : stripesFor(venueId, dates)) {
+            stripes[stripe].unlock();
+        }
+    }
+
+    /**
+     * Get lock contention statistics, hottest venues first
+     * @return Map containing totals and per-venue contention
+     */
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> venues = new ArrayList<>();
+        long contended = 0;
+        for (Map.Entry<Long, VenueContention> entry : contention.entrySet()) {
+            long count = entry.getValue().count.sum();
+            contended += count;
+            Map<String, Object> venue = new HashMap<>();
+            venue.put("venue_id", entry.getKey());
+            venue.put("contended_acquisitions", count);
+            venue.put("total_wait_ms", entry.getValue().waitNanos.sum() / 1_000_000);
+            venues.add(venue);
+        }
+        venues.sort((a, b) -> Long.compare((Long) b.get("contended_acquisitions"), (Long) a.get("contended_acquisitions")));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("stripes", stripes.length);
+        stats.put("acquisitions", acquisitions.sum());
+        stats.put("contended_acquisitions", contended);
+        stats.put("venues", venues);
+        return stats;
+    }
+
+    private ReentrantLock stripeFor(Long venueId, LocalDate date) {
+        return stripes[stripeIndex(venueId, date)];
+    }
+
+    private int[] stripesFor(Long venueId, Collection<LocalDate> dates) {
+        return dates.stream().mapToInt(date -> stripeIndex(venueId, date)).distinct().sorted().toArray();
+    }
+
+    private int stripeIndex(Long venueId, LocalDate date) {
+        int hash = 31 * venueId.hashCode() + date.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+
+    private static class VenueContention {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+
+        void record(long nanos) {
+            count.increment();
+            waitNanos.add(nanos);
+        }
+    }
+}
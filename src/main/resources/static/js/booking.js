@@ -3,6 +3,8 @@
 // Global variables
 let venues = [];
 let currentUser = null;
+let slotEvents = null;
+let selectedSlot = null;
 
 // API Base URL
 const API_BASE = '/api';
@@ -106,6 +108,7 @@ function handleDateChange() {
 }
 
 function loadAvailableSlots(venueId, date) {
+    subscribeToSlotEvents(venueId, date);
     fetch(`${API_BASE}/bookings/available-slots?venueId=${venueId}&date=${date}`)
         .then(response => response.json())
         .then(data => {
@@ -120,6 +123,44 @@ function loadAvailableSlots(venueId, date) {
         });
 }
 
+// Reload the slot list whenever another booking takes or frees a slot of the selected venue-day
+function subscribeToSlotEvents(venueId, date) {
+    if (!window.EventSource) return;
+    const url = `${API_BASE}/bookings/slot-events?venueId=${venueId}&from=${date}`;
+    if (slotEvents && slotEvents.url.endsWith(url)) return;
+    if (slotEvents) slotEvents.close();
+    
+    slotEvents = new EventSource(url);
+    slotEvents.addEventListener('slots', () => {
+        fetch(`${API_BASE}/bookings/available-slots?venueId=${venueId}&date=${date}`)
+            .then(response => response.json())
+            .then(data => {
+                if (data.success) {
+                    displayAvailableSlots(data.availableSlots);
+                    restoreSelection(data.availableSlots);
+                }
+            })
+            .catch(error => console.error('Error refreshing available slots:', error));
+    });
+}
+
+function restoreSelection(availableSlots) {
+    const startInput = document.getElementById('start-time');
+    const endInput = document.getElementById('end-time');
+    // Only slots picked from the list are tracked; hand-typed times are left alone
+    if (!selectedSlot || startInput.value !== selectedSlot.startTime || endInput.value !== selectedSlot.endTime) return;
+    
+    const index = availableSlots.findIndex(slot => slot.startTime === selectedSlot.startTime && slot.endTime === selectedSlot.endTime);
+    if (index >= 0) {
+        document.querySelectorAll('.time-slot')[index].classList.add('selected');
+        return;
+    }
+    startInput.value = '';
+    endInput.value = '';
+    selectedSlot = null;
+    showError('The time slot you selected was just booked by someone else. Please pick another one.');
+}
+
 function displayAvailableSlots(availableSlots) {
     const slotsContainer = document.getElementById('available-slots');
     const containerDiv = document.getElementById('available-slots-container');
@@ -156,6 +197,7 @@ function selectTimeSlot(startTime, endTime) {
     // Set the time values
     document.getElementById('start-time').value = startTime;
     document.getElementById('end-time').value = endTime;
+    selectedSlot = { startTime, endTime };
     
     // Remove selected class from all time slots
     document.querySelectorAll('.time-slot').forEach(slot => {
@@ -18,42 +18,93 @@ document.addEventListener('DOMContentLoaded', function() {
         toastContainer.appendChild(toast);
         setTimeout(() => toast.remove(), 3000);
     }
-    // Approve button handler
-    document.querySelectorAll('.approve-btn').forEach(btn => {
-        btn.addEventListener('click', async function() {
-            const bookingId = this.getAttribute('data-id');
-            const row = document.getElementById('booking-row-' + bookingId);
-            try {
-                const resp = await fetch(`/api/bookings/${bookingId}/approve`, { method: 'POST' });
-                const data = await resp.json();
-                if (data.success) {
-                    showToast('Booking approved!', true);
-                    if (row) row.remove();
-                } else {
-                    showToast(data.error || 'Approval failed', false);
-                }
-            } catch (e) {
-                showToast('Approval failed', false);
-            }
+    const tableBody = document.getElementById('pending-table-body');
+
+    function emptyRow() {
+        const row = document.createElement('tr');
+        row.id = 'pending-empty-row';
+        row.innerHTML = '<td colspan="6" class="text-center">No pending bookings</td>';
+        return row;
+    }
+
+    function bookingRow(booking) {
+        const row = document.createElement('tr');
+        row.id = 'booking-row-' + booking.id;
+        row.innerHTML = `
+            <td>${booking.id}</td>
+            <td>${booking.venue.name}</td>
+            <td>${booking.bookingDate}</td>
+            <td>${booking.startTime} - ${booking.endTime}</td>
+            <td>${booking.user.email}</td>
+            <td>
+                <button class="btn btn-success btn-sm me-1 approve-btn" data-id="${booking.id}"><i class="fas fa-check"></i> Approve</button>
+                <button class="btn btn-danger btn-sm reject-btn" data-id="${booking.id}"><i class="fas fa-times"></i> Reject</button>
+            </td>`;
+        return row;
+    }
+
+    function upsertBooking(booking) {
+        const row = bookingRow(booking);
+        const existing = document.getElementById(row.id);
+        const empty = document.getElementById('pending-empty-row');
+        if (empty) empty.remove();
+        if (existing) {
+            existing.replaceWith(row);
+        } else {
+            // The queue is listed newest first
+            tableBody.prepend(row);
+        }
+    }
+
+    function removeBooking(bookingId) {
+        const row = document.getElementById('booking-row-' + bookingId);
+        if (row) row.remove();
+        if (!tableBody.querySelector('tr')) tableBody.appendChild(emptyRow());
+    }
+
+    // Pending-approval feed: a snapshot on first connect, then only additions and removals.
+    // EventSource reconnects by itself and resumes from the last event ID it received.
+    if (tableBody && window.EventSource) {
+        const feed = new EventSource('/api/bookings/pending/events');
+        feed.addEventListener('snapshot', event => {
+            const snapshot = JSON.parse(event.data);
+            tableBody.innerHTML = '';
+            snapshot.bookings.forEach(booking => tableBody.appendChild(bookingRow(booking)));
+            if (snapshot.bookings.length === 0) tableBody.appendChild(emptyRow());
         });
-    });
-    // Reject button handler
-    document.querySelectorAll('.reject-btn').forEach(btn => {
-        btn.addEventListener('click', async function() {
-            const bookingId = this.getAttribute('data-id');
-            const row = document.getElementById('booking-row-' + bookingId);
-            try {
-                const resp = await fetch(`/api/bookings/${bookingId}/reject`, { method: 'POST' });
-                const data = await resp.json();
-                if (data.success) {
-                    showToast('Booking rejected!', true);
-                    if (row) row.remove();
+        feed.addEventListener('pending', event => {
+            JSON.parse(event.data).events.forEach(change => {
+                if (change.type === 'added') {
+                    upsertBooking(change.booking);
                 } else {
-                    showToast(data.error || 'Rejection failed', false);
+                    removeBooking(change.bookingId);
                 }
-            } catch (e) {
-                showToast('Rejection failed', false);
+            });
+        });
+    }
+
+    async function handleAction(bookingId, action, label) {
+        try {
+            const resp = await fetch(`/api/bookings/${bookingId}/${action}`, { method: 'POST' });
+            const data = await resp.json();
+            if (data.success) {
+                showToast(`Booking ${label}!`, true);
+                removeBooking(bookingId);
+            } else {
+                showToast(data.error || 'Action failed', false);
             }
+        } catch (e) {
+            showToast('Action failed', false);
+        }
+    }
+
+    // Rows come and go with the feed, so buttons are handled by delegation
+    if (tableBody) {
+        tableBody.addEventListener('click', function(e) {
+            const approve = e.target.closest('.approve-btn');
+            const reject = e.target.closest('.reject-btn');
+            if (approve) handleAction(approve.getAttribute('data-id'), 'approve', 'approved');
+            if (reject) handleAction(reject.getAttribute('data-id'), 'reject', 'rejected');
         });
-    });
-}); 
\ No newline at end of file
+    }
+});
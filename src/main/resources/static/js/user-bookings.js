@@ -2,6 +2,11 @@
 const API_BASE = '/api';
 
 let allBookings = [];
+let currentFilter = 'all';
+let bookingStreams = {};
+
+// Longest date range one slot event stream may cover (booking.events.max-range-days)
+const STREAM_MAX_DAYS = 31;
 
 // Initialize the page
 document.addEventListener('DOMContentLoaded', function () {
@@ -51,6 +56,7 @@ function filterBookings(status) {
     console.log('All bookings:', allBookings);
     
     let filteredBookings;
+    currentFilter = status || 'all';
     
     if (status === 'all' || !status) {
         filteredBookings = allBookings;
@@ -255,6 +261,7 @@ async function loadUserBookings() {
             
             // Display all bookings initially
             displayBookings(allBookings, 'all');
+            watchBookingStatuses();
             
         } else {
             console.error('User Bookings: Failed to load bookings:', data.error);
@@ -269,6 +276,55 @@ async function loadUserBookings() {
     }
 }
 
+// Follow status changes of upcoming bookings through the slot event stream of each venue
+function watchBookingStatuses() {
+    if (!window.EventSource) return;
+    const today = new Date().toISOString().split('T')[0];
+    const ranges = {};
+    allBookings
+        .filter(booking => booking.venue && booking.bookingDate >= today &&
+            (booking.status === 'PENDING' || booking.status === 'CONFIRMED'))
+        .forEach(booking => {
+            const range = ranges[booking.venue.id] || { from: booking.bookingDate, to: booking.bookingDate };
+            if (booking.bookingDate < range.from) range.from = booking.bookingDate;
+            if (booking.bookingDate > range.to) range.to = booking.bookingDate;
+            ranges[booking.venue.id] = range;
+        });
+    
+    Object.keys(bookingStreams).forEach(venueId => {
+        if (!ranges[venueId]) {
+            bookingStreams[venueId].close();
+            delete bookingStreams[venueId];
+        }
+    });
+    Object.entries(ranges).forEach(([venueId, range]) => {
+        const last = new Date(range.from);
+        last.setDate(last.getDate() + STREAM_MAX_DAYS);
+        const to = range.to < last.toISOString().split('T')[0] ? range.to : last.toISOString().split('T')[0];
+        const url = `${API_BASE}/bookings/slot-events?venueId=${venueId}&from=${range.from}&to=${to}`;
+        if (bookingStreams[venueId] && bookingStreams[venueId].url.endsWith(url)) return;
+        if (bookingStreams[venueId]) bookingStreams[venueId].close();
+        
+        const stream = new EventSource(url);
+        stream.addEventListener('slots', event => applySlotChanges(JSON.parse(event.data).changes));
+        bookingStreams[venueId] = stream;
+    });
+}
+
+function applySlotChanges(changes) {
+    let updated = false;
+    changes.forEach(change => {
+        const booking = allBookings.find(b => b.id === change.bookingId);
+        if (booking && booking.status !== change.status) {
+            booking.status = change.status;
+            updated = true;
+        }
+    });
+    if (updated) {
+        filterBookings(currentFilter);
+    }
+}
+
 function showError(message) {
     console.error('User Bookings: Error:', message);
     // You can implement a proper error display here
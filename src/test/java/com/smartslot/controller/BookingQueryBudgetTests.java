@@ -0,0 +1,135 @@
+package com.smartslot.controller;
+
+import com.smartslot.model.Booking;
+import com.smartslot.model.User;
+import com.smartslot.model.Venue;
+import com.smartslot.repository.BookingRepository;
+import com.smartslot.repository.UserRepository;
+import com.smartslot.repository.VenueRepository;
+import com.smartslot.service.AuthService;
+import com.smartslot.service.BookingService;
+import com.smartslot.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Booking list endpoints must not issue a query per row. Each seeded day has
+ * bookings from several users at several venues, so a lazy load of user or
+ * venue during serialization would blow the budget. Security filters are
+ * left out; the controllers still check the session or token themselves.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class BookingQueryBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	private QueryBudget queryBudget;
+
+	private User owner;
+
+	private Venue venue;
+
+	@BeforeEach
+	void seed() {
+		queryBudget = new QueryBudget(entityManagerFactory);
+		String run = UUID.randomUUID().toString().substring(0, 8);
+		venue = venueRepository.save(withAmenities(new Venue("Budget Hall " + run, "Query budget venue", 80, "Block A", null)));
+		Venue other = venueRepository.save(withAmenities(new Venue("Budget Lab " + run, "Query budget venue", 30, "Block B", null)));
+		owner = userRepository.save(new User("budget-" + run + "@rvce.edu.in", "Budget Owner", User.UserRole.USER));
+		User colleague = userRepository.save(new User("budget-other-" + run + "@smartslot.test", "Budget Colleague", User.UserRole.USER));
+
+		LocalDate today = LocalDate.now();
+		for (int i = 0; i < 4; i++) {
+			User user = i % 2 == 0 ? owner : colleague;
+			Venue bookedVenue = i < 2 ? venue : other;
+			Booking booking = new Booking("Budget " + i, bookedVenue, user, today, LocalTime.of(8 + i * 2, 0), LocalTime.of(9 + i * 2, 0));
+			booking.setStatus(i == 3 ? Booking.BookingStatus.CONFIRMED : Booking.BookingStatus.PENDING);
+			bookingRepository.save(booking);
+		}
+	}
+
+	@Test
+	void adminBookingPageFetchesUsersAndVenuesWithTheRows() throws Throwable {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("role", "ADMIN");
+		// Page query plus one batched load of the venues' amenities
+		expectOk(get("/api/admin/bookings").param("size", "50").session(session), 2);
+	}
+
+	@Test
+	void staffListsFetchUsersAndVenuesWithTheRows() throws Throwable {
+		String token = (String) authService.demoLogin("budget-staff@rvce.edu.in", User.UserRole.STAFF).get("token");
+		expectOk(get("/api/bookings/pending").header("Authorization", "Bearer " + token), 2);
+		expectOk(get("/api/bookings/today").header("Authorization", "Bearer " + token), 2);
+	}
+
+	@Test
+	void userListsStayWithinBudget() throws Throwable {
+		String token = (String) authService.demoLogin(owner.getEmail(), User.UserRole.USER).get("token");
+		expectOk(get("/api/bookings/my-bookings").header("Authorization", "Bearer " + token), 2);
+
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("user", owner);
+		// Projection query only
+		expectOk(get("/api/bookings/user").session(session), 1);
+	}
+
+	@Test
+	void venueRangeLookupDoesNotLoadUsersPerRow() throws Throwable {
+		LocalDate today = LocalDate.now();
+		queryBudget.assertAtMost(2, () -> {
+			List<Booking> bookings = bookingService.getBookingsForVenueAndDateRange(venue.getId(), today, today);
+			assertEquals(2, bookings.size());
+			bookings.forEach(booking -> booking.getUser().getEmail());
+		});
+	}
+
+	private void expectOk(MockHttpServletRequestBuilder request, long maxStatements) throws Throwable {
+		queryBudget.assertAtMost(maxStatements, () -> mockMvc.perform(request)
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.success").value(true)));
+	}
+
+	private static Venue withAmenities(Venue venue) {
+		venue.setAmenities(List.of("Projector", "Whiteboard"));
+		return venue;
+	}
+
+}
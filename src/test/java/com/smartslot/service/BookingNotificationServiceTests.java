@@ -0,0 +1,154 @@
+package com.smartslot.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.smartslot.model.OutboxEmail;
+import com.smartslot.repository.OutboxEmailRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.Multipart;
+import javax.mail.Part;
+import javax.mail.internet.MimeMessage;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Its own database, so the fast poller never sees a schema another context recreated
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+	"booking.notifications.poll-ms=100",
+	"booking.notifications.chunk-size=2",
+	"booking.notifications.max-attempts=2",
+	"booking.notifications.backoff-ms=50",
+	"booking.notifications.max-backoff-ms=200"
+})
+class BookingNotificationServiceTests {
+
+	// Listens on the port the test profile points spring.mail at
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	@Autowired
+	private BookingNotificationService bookingNotificationService;
+
+	@Autowired
+	private NotificationTemplateService notificationTemplateService;
+
+	@Autowired
+	private OutboxEmailRepository outboxEmailRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void committedEmailsAreDeliveredAndMarkedSent() throws Exception {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 1; i <= 3; i++) {
+				bookingNotificationService.enqueue("delivered@smartslot.test", "Outbox " + i, "Body " + i);
+			}
+		});
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 3));
+		List<String> subjects = subjectsOf(greenMail.getReceivedMessages());
+		assertTrue(subjects.containsAll(List.of("Outbox 1", "Outbox 2", "Outbox 3")));
+
+		List<OutboxEmail> rows = awaitRows("delivered@smartslot.test", 3, OutboxEmail.OutboxStatus.SENT);
+		rows.forEach(row -> {
+			assertEquals(1, row.getAttempts());
+			assertNotNull(row.getSentAt());
+		});
+	}
+
+	@Test
+	void rolledBackEmailsAreNeverSent() throws Exception {
+		transactionTemplate.executeWithoutResult(status -> {
+			bookingNotificationService.enqueue("rolled-back@smartslot.test", "Rolled back", "Never sent");
+			status.setRollbackOnly();
+		});
+		bookingNotificationService.enqueue("committed@smartslot.test", "Committed", "Sent");
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+		awaitRows("committed@smartslot.test", 1, OutboxEmail.OutboxStatus.SENT);
+		assertEquals(List.of("Committed"), subjectsOf(greenMail.getReceivedMessages()));
+		assertTrue(rowsFor("rolled-back@smartslot.test").isEmpty());
+	}
+
+	@Test
+	void templatedEmailsCarryTextAndEscapedHtml() throws Exception {
+		bookingNotificationService.enqueue("templated@smartslot.test", notificationTemplateService.render(
+			NotificationTemplateService.Template.BOOKING_EXPIRED, "Hall <A>", LocalDate.of(2026, 11, 2)));
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+		MimeMessage message = greenMail.getReceivedMessages()[0];
+		assertEquals("Booking Expired", message.getSubject());
+		Map<String, String> parts = new HashMap<>();
+		collectParts(message, parts);
+		assertEquals("Your pending booking for Hall <A> on 2026-11-02 has expired due to inactivity.",
+			parts.get("text/plain"));
+		assertTrue(parts.get("text/html").contains("Your pending booking for Hall &lt;A&gt; on 2026-11-02"));
+	}
+
+	@Test
+	void undeliverableEmailsAreRetriedThenDeadLettered() throws Exception {
+		greenMail.stop();
+		bookingNotificationService.enqueue("unreachable@smartslot.test", "Unreachable", "Mail server is down");
+
+		OutboxEmail row = awaitRows("unreachable@smartslot.test", 1, OutboxEmail.OutboxStatus.DEAD).get(0);
+		assertEquals(2, row.getAttempts());
+		assertNotNull(row.getLastError());
+	}
+
+	private List<OutboxEmail> awaitRows(String recipient, int count, OutboxEmail.OutboxStatus status)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (System.currentTimeMillis() < deadline) {
+			List<OutboxEmail> rows = rowsFor(recipient);
+			if (rows.size() == count && rows.stream().allMatch(row -> row.getStatus() == status)) {
+				return rows;
+			}
+			Thread.sleep(50);
+		}
+		fail("Outbox rows for " + recipient + " did not reach " + status + ": " + rowsFor(recipient).stream()
+			.map(row -> row.getStatus() + "/" + row.getAttempts()).collect(Collectors.toList()));
+		return null;
+	}
+
+	private List<OutboxEmail> rowsFor(String recipient) {
+		return outboxEmailRepository.findAll().stream()
+			.filter(row -> recipient.equals(row.getRecipient()))
+			.collect(Collectors.toList());
+	}
+
+	private static void collectParts(Part part, Map<String, String> parts) throws Exception {
+		Object content = part.getContent();
+		if (content instanceof Multipart) {
+			Multipart multipart = (Multipart) content;
+			for (int i = 0; i < multipart.getCount(); i++) {
+				collectParts(multipart.getBodyPart(i), parts);
+			}
+		} else {
+			parts.put(part.getContentType().split(";")[0].trim().toLowerCase(), content.toString());
+		}
+	}
+
+	private static List<String> subjectsOf(MimeMessage[] messages) throws Exception {
+		List<String> subjects = new ArrayList<>();
+		for (MimeMessage message : messages) {
+			subjects.add(message.getSubject());
+		}
+		return subjects;
+	}
+
+}
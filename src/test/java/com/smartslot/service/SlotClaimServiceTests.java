@@ -0,0 +1,107 @@
+package com.smartslot.service;
+
+import com.smartslot.model.Booking;
+import com.smartslot.model.User;
+import com.smartslot.model.Venue;
+import com.smartslot.repository.BookingRepository;
+import com.smartslot.repository.UserRepository;
+import com.smartslot.repository.VenueRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SlotClaimServiceTests {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private SlotClaimService slotClaimService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private VenueRepository venueRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void claimRejectsBookingInsertedByAnotherNode() {
+		Venue venue = venueRepository.save(new Venue("Claim Hall", "Slot claim test venue", 50, "Test Block", null));
+		User user = userRepository.save(new User("claims@smartslot.test", "Claim Tester", User.UserRole.USER));
+		LocalDate date = LocalDate.now().plusDays(10);
+
+		// Warm this node's index while the day is still empty
+		assertTrue(bookingService.isSlotAvailable(venue.getId(), date.toString(), "10:00", "11:00"));
+
+		// Another node books 10:00-11:00; this node's index never hears about it
+		Booking other = new Booking("Other node", venue, user, date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+		transactionTemplate.executeWithoutResult(status -> slotClaimService.claim(bookingRepository.save(other)));
+
+		Map<String, Object> result = bookingService.createEnhancedBooking(
+			user, venue.getId(), date.toString(), "10:30", "11:30", "Overlap", null);
+		assertEquals(false, result.get("success"));
+		assertEquals("CLAIMED", result.get("conflictType"));
+		assertEquals(1, bookingRepository.findActiveSlotRows(venue.getId(), date, date).size());
+
+		// Cancelling releases the claims and the slot can be booked again
+		bookingService.adminCancelBooking(other.getId());
+		result = bookingService.createEnhancedBooking(
+			user, venue.getId(), date.toString(), "10:30", "11:30", "Retry", null);
+		assertEquals(true, result.get("success"));
+	}
+
+	@Test
+	void bookingCancelledByAnotherNodeIsNotReportedAsConflict() {
+		Venue venue = venueRepository.save(new Venue("Stale Hall", "Stale index test venue", 50, "Test Block", null));
+		User user = userRepository.save(new User("stale@smartslot.test", "Stale Tester", User.UserRole.USER));
+		LocalDate date = LocalDate.now().plusDays(10);
+
+		Map<String, Object> result = bookingService.createEnhancedBooking(
+			user, venue.getId(), date.toString(), "14:00", "15:00", "First", null);
+		Booking first = (Booking) result.get("booking");
+		assertFalse(bookingService.isSlotAvailable(venue.getId(), date.toString(), "14:00", "15:00"));
+
+		// Another node cancels it; this node's index still holds the booking
+		transactionTemplate.executeWithoutResult(status -> {
+			Booking stored = bookingRepository.findById(first.getId()).orElseThrow();
+			stored.setStatus(Booking.BookingStatus.CANCELLED);
+			bookingRepository.save(stored);
+			slotClaimService.release(first.getId());
+		});
+
+		result = bookingService.createEnhancedBooking(
+			user, venue.getId(), date.toString(), "14:00", "15:00", "Second", null);
+		assertEquals(true, result.get("success"));
+	}
+
+	@Test
+	void offGridTimesAreRejected() {
+		Venue venue = venueRepository.save(new Venue("Grid Hall", "Slot grid test venue", 50, "Test Block", null));
+		User user = userRepository.save(new User("grid@smartslot.test", "Grid Tester", User.UserRole.USER));
+		LocalDate date = LocalDate.now().plusDays(10);
+
+		// 09:10 would claim slot 09:00-09:15, which a 09:00-09:10 booking also claims
+		Map<String, Object> result = bookingService.createEnhancedBooking(
+			user, venue.getId(), date.toString(), "09:10", "09:20", "Off grid", null);
+		assertEquals(false, result.get("success"));
+		assertEquals("Start and end times must be on a 15-minute boundary", result.get("error"));
+		assertTrue(bookingRepository.findActiveSlotRows(venue.getId(), date, date).isEmpty());
+	}
+
+}
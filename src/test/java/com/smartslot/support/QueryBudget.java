@@ -0,0 +1,43 @@
+package com.smartslot.support;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.Executable;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails a test when the code under test prepares more JDBC statements than
+ * its budget. Counts come from Hibernate statistics, which the test profile
+ * enables, so lazy loads during JSON serialization are included.
+ */
+public class QueryBudget {
+
+    private final Statistics statistics;
+
+    public QueryBudget(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Run an action and assert how many statements it issued
+     * @param maxStatements Budget
+     * @param action Code under test
+     * @return Number of statements issued
+     */
+    public long assertAtMost(long maxStatements, Executable action) throws Throwable {
+        statistics.clear();
+        action.execute();
+        long statements = statistics.getPrepareStatementCount();
+        if (statements > maxStatements) {
+            fail("Expected at most " + maxStatements + " statements but " + statements + " were issued. "
+                + "Queries: " + Arrays.toString(statistics.getQueries())
+                + ", entity fetches: " + statistics.getEntityFetchCount()
+                + ", collection fetches: " + statistics.getCollectionFetchCount());
+        }
+        return statements;
+    }
+}